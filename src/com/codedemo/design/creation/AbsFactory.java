@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.util.stream.IntStream;
+
+/**
+ * @describe: 抽象工厂
+ * @author: linjuanjuan
+ * @date: 2020-02-16 11:12
+ */
+abstract class AbsFactory {
+
+    // 批量数量超过该值时才并行创建，数量较少时并行的调度开销比创建本身还大
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    public abstract Container getContainer();
+    public abstract Module getModule();
+
+    public ProductFamilies createFamilies(int n) {
+        return createFamilies(n, n >= PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 批量创建产品家族，结果放在预先分配好的数组中
+     * 子类可以覆盖该方法，直接new具体的产品，省去每个产品一次getContainer/getModule的虚方法调用
+     * @param parallel 是否在多个核上并行创建
+     */
+    public ProductFamilies createFamilies(int n, boolean parallel) {
+        if (n < 0) {
+            throw new IllegalArgumentException("数量不能小于0");
+        }
+        Container[] containers = new Container[n];
+        Module[] modules = new Module[n];
+        IntStream range = IntStream.range(0, n);
+        if (parallel) {
+            range = range.parallel();
+        }
+        range.forEach(i -> {
+            containers[i] = getContainer();
+            modules[i] = getModule();
+        });
+        return new ProductFamilies(containers, modules);
+    }
+}
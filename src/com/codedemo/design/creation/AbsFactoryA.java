@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 工厂A
+ * @author: linjuanjuan
+ * @date: 2020-02-16 11:12
+ */
+class AbsFactoryA extends AbsFactory {
+    @Override
+    public Container getContainer() {
+        return new ContainerA();
+    }
+
+    @Override
+    public Module getModule() {
+        return new ModuleA();
+    }
+}
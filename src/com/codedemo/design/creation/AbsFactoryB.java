@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 工厂B
+ * @author: linjuanjuan
+ * @date: 2020-02-16 11:12
+ */
+class AbsFactoryB extends AbsFactory {
+    @Override
+    public Container getContainer() {
+        return new ContainerB();
+    }
+
+    @Override
+    public Module getModule() {
+        return new ModuleB();
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 抽象建造者，会装门，会装窗，会装地板
+ * getHouse返回的是建造者内部正在建造的房子，reset后可以重新建造
+ * @author: linjuanjuan
+ * @date: 2020-02-16 11:26
+ */
+interface Builder {
+    void installDoor();
+    void installWindow();
+    void installFloor();
+
+    House getHouse();
+
+    /**
+     * 清空正在建造的房子，建造者可以重复使用
+     */
+    default void reset() {
+        House house = getHouse();
+        house.setDoor(null);
+        house.setWindow(null);
+        house.setFloor(null);
+    }
+
+    /**
+     * 输出当前建造结果的不可变快照，之后reset不会影响已经输出的房子
+     */
+    default ImmutableHouse build() {
+        House house = getHouse();
+        return new ImmutableHouse(house.getDoor(), house.getWindow(), house.getFloor());
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 具体建造者A
+ * @author: linjuanjuan
+ * @date: 2020-02-16 11:26
+ */
+class BuilderA implements Builder {
+    private House house = new House();
+
+    @Override
+    public void installDoor() {
+        System.out.println("建造者A == > 安装门");
+        house.setDoor("门");
+    }
+
+    @Override
+    public void installWindow() {
+        System.out.println("建造者A == > 安装窗");
+        house.setWindow("窗");
+    }
+
+    @Override
+    public void installFloor() {
+        System.out.println("建造者A == > 安装地板");
+        house.setFloor("地板");
+    }
+
+    @Override
+    public House getHouse() {
+        return house;
+    }
+}
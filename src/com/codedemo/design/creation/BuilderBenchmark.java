@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * @describe: 建造者模式 - 内存分配对比
+ * 对比每次建造都新建建造者和重复使用同一个建造者（reset + build）时，每次建造分配的内存字节数
+ * 示例中的BuilderA、BuilderB会打印日志，这里使用不打印日志的建造者，避免输出影响统计
+ * 依赖HotSpot的com.sun.management.ThreadMXBean统计线程分配的内存
+ * @author: linjuanjuan
+ * @date: 2026-10-17 16:02
+ */
+public class BuilderBenchmark {
+
+    private static final int ITERATIONS = 10_000_000;
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // 防止JIT把没有使用的对象优化掉
+    private static Object sink;
+
+    public static void main(String[] args) {
+        for (int round = 0; round < 2; round++) {
+            long bytes = allocated();
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink = new Director(new QuietBuilder()).build();
+            }
+            print("每次新建建造者", bytes, start);
+
+            Director director = new Director(new QuietBuilder());
+            bytes = allocated();
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink = director.buildSnapshot();
+            }
+            print("重复使用建造者", bytes, start);
+        }
+    }
+
+    private static void print(String name, long bytes, long start) {
+        long cost = System.nanoTime() - start;
+        bytes = allocated() - bytes;
+        System.out.printf("%-10s %8.2f bytes/op %6.2f ns/op%n", name,
+                (double) bytes / ITERATIONS, (double) cost / ITERATIONS);
+    }
+
+    private static long allocated() {
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
+
+/**
+ * 不打印日志的建造者
+ */
+class QuietBuilder implements Builder {
+    private House house = new House();
+
+    @Override
+    public void installDoor() {
+        house.setDoor("门");
+    }
+
+    @Override
+    public void installWindow() {
+        house.setWindow("窗");
+    }
+
+    @Override
+    public void installFloor() {
+        house.setFloor("地板");
+    }
+
+    @Override
+    public House getHouse() {
+        return house;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * @describe: 建造者模式 - 并发指挥者
+ * Director按顺序依次调用建造步骤，当每个步骤都比较耗时（例如远程查询）时，整体耗时是所有步骤之和
+ * 并发指挥者中每个步骤声明自己依赖的步骤，没有依赖关系的步骤在线程池中并行执行，全部完成后才返回房子
+ * 每个步骤都有超时时间（从build开始计算，包含等待依赖步骤的时间），超时后整个建造失败，同时统计每个步骤的执行次数和耗时
+ * 每次build都通过Supplier创建新的建造者，建造失败时尚未开始的步骤不再执行，正在执行的步骤会被中断
+ * 不响应中断的步骤即使晚于超时完成，也只会修改这次被丢弃的建造者，不会影响之后build出来的房子
+ * 线程池由外部传入，JDK支持虚拟线程时可以传入Executors.newVirtualThreadPerTaskExecutor()
+ * 注意：同一次build中并行执行的步骤会同时修改建造者，建造者中不同步骤修改的数据不能互相影响
+ * @author: linjuanjuan
+ * @date: 2026-10-17 16:30
+ */
+public class ConcurrentDirector {
+
+    public static void main(String[] args) {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ConcurrentDirector director = ConcurrentDirector.standard(BuilderA::new, executor, 1000);
+            System.out.println(director.build());
+            System.out.println(director.getMetrics());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private final Supplier<? extends Builder> builders;
+    private final Executor executor;
+    private final long timeoutMillis;
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+
+    /**
+     * @param builders 每次build时创建一个新的建造者
+     */
+    public ConcurrentDirector(Supplier<? extends Builder> builders, Executor executor, long timeoutMillis) {
+        this.builders = builders;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 门、地板、窗三个步骤互不依赖，全部并行执行
+     */
+    public static ConcurrentDirector standard(Supplier<? extends Builder> builders, Executor executor, long timeoutMillis) {
+        return new ConcurrentDirector(builders, executor, timeoutMillis)
+                .step("door", Builder::installDoor)
+                .step("floor", Builder::installFloor)
+                .step("window", Builder::installWindow);
+    }
+
+    /**
+     * 声明一个建造步骤
+     * @param action    对本次build的建造者执行的操作
+     * @param dependsOn 依赖的步骤，必须在当前步骤之前声明，因此步骤之间不会出现循环依赖
+     */
+    public synchronized ConcurrentDirector step(String name, Consumer<? super Builder> action, String... dependsOn) {
+        if (steps.containsKey(name)) {
+            throw new IllegalArgumentException("步骤已经存在 == > " + name);
+        }
+        for (String depend : dependsOn) {
+            if (!steps.containsKey(depend)) {
+                throw new IllegalArgumentException("依赖的步骤不存在 == > " + depend);
+            }
+        }
+        steps.put(name, new Step(name, action, dependsOn.clone()));
+        return this;
+    }
+
+    public House build() {
+        Builder builder = builders.get();
+        Map<String, StepTask> tasks = new LinkedHashMap<>();
+        synchronized (this) {
+            for (Step step : steps.values()) {
+                CompletableFuture<?>[] depends = new CompletableFuture<?>[step.dependsOn.length];
+                for (int i = 0; i < depends.length; i++) {
+                    depends[i] = tasks.get(step.dependsOn[i]).future;
+                }
+                StepTask task = new StepTask(step, builder);
+                // 超时后future被异常完成，尚未开始的步骤不会再执行
+                task.future = CompletableFuture.allOf(depends)
+                        .thenRunAsync(task, executor)
+                        .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+                tasks.put(step.name, task);
+            }
+        }
+        for (Map.Entry<String, StepTask> entry : tasks.entrySet()) {
+            try {
+                entry.getValue().future.join();
+            } catch (CompletionException e) {
+                for (StepTask task : tasks.values()) {
+                    task.cancel();
+                }
+                if (e.getCause() instanceof TimeoutException) {
+                    throw new IllegalStateException("建造步骤超时 == > " + entry.getKey(), e.getCause());
+                }
+                throw new IllegalStateException("建造步骤失败 == > " + entry.getKey(), e.getCause());
+            }
+        }
+        return builder.getHouse();
+    }
+
+    /**
+     * 每个步骤的耗时统计，key为步骤名称
+     */
+    public synchronized Map<String, StepMetrics> getMetrics() {
+        Map<String, StepMetrics> metrics = new LinkedHashMap<>();
+        for (Step step : steps.values()) {
+            metrics.put(step.name, step.metrics);
+        }
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    private static final class Step {
+        private final String name;
+        private final Consumer<? super Builder> action;
+        private final String[] dependsOn;
+        private final StepMetrics metrics = new StepMetrics();
+
+        private Step(String name, Consumer<? super Builder> action, String[] dependsOn) {
+            this.name = name;
+            this.action = action;
+            this.dependsOn = dependsOn;
+        }
+
+        private void run(Builder builder) {
+            long start = System.nanoTime();
+            try {
+                action.accept(builder);
+            } finally {
+                metrics.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * 一次build中的一个步骤，记录执行它的线程，建造失败时用来中断
+     * 执行线程的设置、清除和中断都在同一个锁内，中断不会泄漏给线程池中执行下一个任务的线程
+     */
+    private static final class StepTask implements Runnable {
+        private final Step step;
+        private final Builder builder;
+        private CompletableFuture<Void> future;
+        private Thread runner;
+        private boolean cancelled;
+
+        private StepTask(Step step, Builder builder) {
+            this.step = step;
+            this.builder = builder;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            try {
+                step.run(builder);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    // 清除可能由cancel设置的中断标记
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            future.cancel(false);
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+
+    /**
+     * 单个步骤的耗时统计
+     */
+    public static final class StepMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getAvgNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / n;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        @Override
+        public String toString() {
+            return "StepMetrics{" +
+                    "count=" + getCount() +
+                    ", avgNanos=" + getAvgNanos() +
+                    ", maxNanos=" + getMaxNanos() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 容器A
+ * @author: linjuanjuan
+ * @date: 2020-02-16 11:12
+ */
+class ContainerA extends Container {
+    @Override
+    public void create() {
+        System.out.println("容器A创建");
+    }
+}
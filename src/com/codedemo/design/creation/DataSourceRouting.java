@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * @describe: 线程单例 - 多数据源动态切换
+ * 路由栈保存在SingletonThreadLocal中，每个线程各自一份，切换时没有共享状态
+ * 数据源的名字在注册时转换成int路由，请求中切换和查找都只用int，不需要字符串hash
+ * 每个路由对应一组分段的数据源句柄，线程按自己的id选取分段，避免所有线程争抢同一个句柄
+ * 典型场景是读写分离：写操作走主库，读操作切到从库，结束后自动切回
+ * @author: linjuanjuan
+ * @date: 2026-10-17 13:20
+ */
+public class DataSourceRouting {
+    public static void main(String[] args) {
+        DataSourceRouter<MemoryDataSource> router = new DataSourceRouter<>();
+        int master = router.register("master", () -> new MemoryDataSource("master"));
+        int slave = router.register("slave", () -> new MemoryDataSource("slave"));
+
+        router.current().execute("insert");
+        try (SingletonThreadLocal.RouteScope read = router.use(slave)) {
+            System.out.println("切换到路由 == > " + read.route());
+            router.current().execute("select");
+            try (SingletonThreadLocal.RouteScope write = router.use(master)) {
+                System.out.println("切换到路由 == > " + write.route());
+                router.current().execute("select for update");
+            }
+            router.current().execute("select");
+        }
+        router.current().execute("update");
+        System.out.println("路由 slave == > " + router.route("slave"));
+    }
+}
+
+/**
+ * 数据源路由
+ * 注册在启动时完成，注册后的查找不加锁、不创建对象
+ */
+class DataSourceRouter<D> {
+
+    private static final int STRIPES =
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+
+    private final Map<String, Integer> routes = new HashMap<>();
+    // handles[路由][分段]，注册时整体替换，查找时只读
+    private volatile Object[][] handles = new Object[0][];
+
+    /**
+     * 注册一个数据源，返回对应的路由，第一个注册的数据源为默认数据源
+     * @param factory 为每个分段创建一个数据源句柄
+     */
+    public synchronized int register(String name, Supplier<? extends D> factory) {
+        if (routes.containsKey(name)) {
+            throw new IllegalArgumentException("数据源已经注册 == > " + name);
+        }
+        Object[] stripes = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = factory.get();
+        }
+        Object[][] current = handles;
+        Object[][] next = new Object[current.length + 1][];
+        System.arraycopy(current, 0, next, 0, current.length);
+        next[current.length] = stripes;
+        routes.put(name, current.length);
+        handles = next;
+        return current.length;
+    }
+
+    /**
+     * 根据名字获取路由，只在初始化时调用一次，之后使用int路由
+     */
+    public synchronized int route(String name) {
+        Integer route = routes.get(name);
+        if (route == null) {
+            throw new IllegalArgumentException("数据源未注册 == > " + name);
+        }
+        return route;
+    }
+
+    /**
+     * 当前线程切换到指定的路由，配合try-with-resources在结束时自动恢复
+     */
+    public SingletonThreadLocal.RouteScope use(int route) {
+        if (route < 0 || route >= handles.length) {
+            throw new IllegalArgumentException("数据源未注册 == > " + route);
+        }
+        return SingletonThreadLocal.getInstance().pushRoute(route);
+    }
+
+    /**
+     * 当前线程路由到的数据源句柄
+     */
+    @SuppressWarnings("unchecked")
+    public D current() {
+        Object[][] current = handles;
+        int route = SingletonThreadLocal.getInstance().currentRoute();
+        // 路由可能直接通过SingletonThreadLocal切换，没有经过use的检查
+        if (route >= current.length) {
+            throw new IllegalStateException("数据源未注册 == > " + route);
+        }
+        return (D) current[route][(int) Thread.currentThread().getId() & (STRIPES - 1)];
+    }
+}
+
+/**
+ * 内存中的数据源，代替真实的数据源做演示
+ */
+class MemoryDataSource {
+
+    private final String name;
+
+    public MemoryDataSource(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void execute(String sql) {
+        System.out.println(name + " == > " + sql);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 指挥者
+ * @author: linjuanjuan
+ * @date: 2020-02-16 11:26
+ */
+class Director {
+    private Builder builder;
+
+    public Director(Builder builder) {
+        this.builder = builder;
+    }
+
+    public House build() {
+        builder.installDoor();
+        builder.installFloor();
+        builder.installWindow();
+        return builder.getHouse();
+    }
+
+    /**
+     * 重置建造者后建造，返回不可变的房子，建造者可以反复用于建造
+     */
+    public ImmutableHouse buildSnapshot() {
+        builder.reset();
+        build();
+        return builder.build();
+    }
+
+    /**
+     * 建造一个房子，直接追加到批量存储中，返回房子在批量存储中的行号
+     */
+    public int buildInto(HouseBatch batch) {
+        House house = build();
+        return batch.add(house.getDoor(), house.getWindow(), house.getFloor());
+    }
+}
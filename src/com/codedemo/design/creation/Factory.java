@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 工厂，静态方法创建产品
+ * @author: linjuanjuan
+ * @date: 2020-02-16 10:48
+ */
+class Factory {
+    public static Product getProduct(String name) {
+        switch (name) {
+            case "A":
+                return new ProductA();
+            case "B":
+                return new ProductB();
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.util.function.Supplier;
+
+/**
+ * @describe: 由MethodFactoryLoader生成的工厂
+ * @author: linjuanjuan
+ * @date: 2026-10-17 14:55
+ */
+class GeneratedMethodFactory extends MethodFactory {
+
+    private final Supplier<MethodProduct> supplier;
+
+    public GeneratedMethodFactory(Supplier<MethodProduct> supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public MethodProduct getProduct() {
+        return supplier.get();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 房子，产品的最终产物，房子需要安装门，窗户，地板
+ * @author: linjuanjuan
+ * @date: 2020-02-16 11:26
+ */
+class House {
+
+    private String door;
+    private String window;
+    private String floor;
+
+    public String getDoor() {
+        return door;
+    }
+
+    public void setDoor(String door) {
+        this.door = door;
+    }
+
+    public String getWindow() {
+        return window;
+    }
+
+    public void setWindow(String window) {
+        this.window = window;
+    }
+
+    public String getFloor() {
+        return floor;
+    }
+
+    public void setFloor(String floor) {
+        this.floor = floor;
+    }
+
+    @Override
+    public String toString() {
+        return "House{" +
+                "door='" + door + '\'' +
+                ", window='" + window + '\'' +
+                ", floor='" + floor + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @describe: 按列存储的一批房子
+ * 门、窗、地板分别存为一列int，相同的字符串只在字典中保存一份，每一列只保存字典编码
+ * 不需要为每个房子创建对象，省去了对象头和重复的字符串
+ * 读取单个房子时通过HouseView，一个view可以反复指向不同的行
+ * @author: linjuanjuan
+ * @date: 2026-10-17 15:45
+ */
+class HouseBatch {
+
+    // 字典编码，-1表示null
+    private static final int NULL = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] dictionary = new String[16];
+    private int dictionarySize;
+
+    private int[] doors;
+    private int[] windows;
+    private int[] floors;
+    private int size;
+
+    public HouseBatch() {
+        this(1024);
+    }
+
+    public HouseBatch(int capacity) {
+        doors = new int[capacity];
+        windows = new int[capacity];
+        floors = new int[capacity];
+    }
+
+    public int add(String door, String window, String floor) {
+        if (size == doors.length) {
+            int capacity = Math.max(16, size << 1);
+            doors = Arrays.copyOf(doors, capacity);
+            windows = Arrays.copyOf(windows, capacity);
+            floors = Arrays.copyOf(floors, capacity);
+        }
+        doors[size] = encode(door);
+        windows[size] = encode(window);
+        floors[size] = encode(floor);
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getDoor(int row) {
+        return decode(doors[check(row)]);
+    }
+
+    public String getWindow(int row) {
+        return decode(windows[check(row)]);
+    }
+
+    public String getFloor(int row) {
+        return decode(floors[check(row)]);
+    }
+
+    public HouseView view() {
+        return new HouseView();
+    }
+
+    private int encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            if (dictionarySize == dictionary.length) {
+                dictionary = Arrays.copyOf(dictionary, dictionarySize << 1);
+            }
+            code = dictionarySize;
+            dictionary[dictionarySize++] = value;
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private String decode(int code) {
+        return code == NULL ? null : dictionary[code];
+    }
+
+    private int check(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("行号越界 == > " + row);
+        }
+        return row;
+    }
+
+    /**
+     * 房子的只读视图，享元对象，通过at切换到不同的行
+     */
+    class HouseView {
+        private int row;
+
+        public HouseView at(int row) {
+            this.row = check(row);
+            return this;
+        }
+
+        public String getDoor() {
+            return HouseBatch.this.getDoor(row);
+        }
+
+        public String getWindow() {
+            return HouseBatch.this.getWindow(row);
+        }
+
+        public String getFloor() {
+            return HouseBatch.this.getFloor(row);
+        }
+
+        @Override
+        public String toString() {
+            return "House{" +
+                    "door='" + getDoor() + '\'' +
+                    ", window='" + getWindow() + '\'' +
+                    ", floor='" + getFloor() + '\'' +
+                    '}';
+        }
+    }
+}
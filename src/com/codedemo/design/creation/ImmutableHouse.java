@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 不可变的房子，由建造者的build输出，字段全部为final，可以在线程间安全共享
+ * @author: linjuanjuan
+ * @date: 2026-10-17 16:00
+ */
+final class ImmutableHouse {
+
+    private final String door;
+    private final String window;
+    private final String floor;
+
+    public ImmutableHouse(String door, String window, String floor) {
+        this.door = door;
+        this.window = window;
+        this.floor = floor;
+    }
+
+    public String getDoor() {
+        return door;
+    }
+
+    public String getWindow() {
+        return window;
+    }
+
+    public String getFloor() {
+        return floor;
+    }
+
+    @Override
+    public String toString() {
+        return "House{" +
+                "door='" + door + '\'' +
+                ", window='" + window + '\'' +
+                ", floor='" + floor + '\'' +
+                '}';
+    }
+}
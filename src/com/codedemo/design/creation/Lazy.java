@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * @describe: 懒加载 - 通用的延迟初始化字段
+ * 双重检查锁的通用版本，不需要每个字段都写一遍双重检查的样板代码
+ * 初始化完成后读取只是一次acquire读，不需要像volatile那样每次都做完整的内存屏障，也不需要加锁
+ * 初始化时用release写发布对象，保证其他线程看到的是初始化完成的对象，不会出现指令重排序的问题
+ * 只在首次初始化时锁住当前Lazy对象本身，不同的Lazy之间互不影响，supplier只会执行一次
+ * 使用方式：private final Lazy<Foo> foo = Lazy.of(Foo::new); foo.get();
+ * @author: linjuanjuan
+ * @date: 2026-10-17 11:05
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Lazy.class, "value", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Supplier<? extends T> supplier;
+    private Object value;
+
+    private Lazy(Supplier<? extends T> supplier) {
+        this.supplier = supplier;
+    }
+
+    public static <T> Lazy<T> of(Supplier<? extends T> supplier) {
+        return new Lazy<>(Objects.requireNonNull(supplier));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get() {
+        Object v = VALUE.getAcquire(this);
+        if (v != null) {
+            return (T) v;
+        }
+        return initialize();
+    }
+
+    public boolean isInitialized() {
+        return VALUE.getAcquire(this) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized T initialize() {
+        // 已经持有锁，其他线程的写入对当前线程可见，直接普通读即可
+        Object v = value;
+        if (v == null) {
+            v = Objects.requireNonNull(supplier.get(), "Lazy的supplier不能返回null");
+            VALUE.setRelease(this, v);
+            // 初始化完成后释放supplier，避免它引用的对象无法被回收
+            supplier = null;
+        }
+        return (T) v;
+    }
+
+    @Override
+    public String toString() {
+        Object v = VALUE.getAcquire(this);
+        return v != null ? "Lazy[" + v + "]" : "Lazy[未初始化]";
+    }
+}
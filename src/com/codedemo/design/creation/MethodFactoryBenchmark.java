@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+
+/**
+ * @describe: 工厂方法 - 产品创建方式性能对比
+ * 对比直接new、反射调用构造方法、MethodHandle调用构造方法、LambdaMetafactory生成的工厂四种方式创建产品的耗时
+ * @author: linjuanjuan
+ * @date: 2026-10-17 15:10
+ */
+public class MethodFactoryBenchmark {
+
+    private static final int WARMUP = 5_000_000;
+    private static final int ITERATIONS = 50_000_000;
+    private static final String PRODUCT = MethodProductA.class.getName();
+
+    // 防止JIT把没有使用的对象优化掉
+    private static Object sink;
+
+    public static void main(String[] args) throws Throwable {
+        MethodFactory direct = new MethodProductFactoryA();
+        Constructor<?> constructor = Class.forName(PRODUCT).getDeclaredConstructor();
+        MethodHandle handle = MethodHandles.lookup()
+                .findConstructor(Class.forName(PRODUCT), MethodType.methodType(void.class))
+                .asType(MethodType.methodType(MethodProduct.class));
+        MethodFactory generated = MethodFactoryLoader.load(PRODUCT);
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+                if (i == WARMUP) {
+                    start = System.nanoTime();
+                }
+                sink = direct.getProduct();
+            }
+            print("直接new", start);
+
+            for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+                if (i == WARMUP) {
+                    start = System.nanoTime();
+                }
+                sink = constructor.newInstance();
+            }
+            print("反射", start);
+
+            for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+                if (i == WARMUP) {
+                    start = System.nanoTime();
+                }
+                sink = ((MethodProduct) handle.invokeExact());
+            }
+            print("MethodHandle", start);
+
+            for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+                if (i == WARMUP) {
+                    start = System.nanoTime();
+                }
+                sink = generated.getProduct();
+            }
+            print("LambdaMetafactory", start);
+        }
+        System.out.println("sink == > " + sink);
+    }
+
+    private static void print(String name, long start) {
+        System.out.printf("%-20s %.2f ns/op%n", name, (double) (System.nanoTime() - start) / ITERATIONS);
+    }
+}
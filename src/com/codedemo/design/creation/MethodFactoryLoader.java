@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * @describe: 根据产品类名加载工厂
+ * 类名只在第一次加载时解析，通过LambdaMetafactory把产品的无参构造方法生成一个Supplier
+ * 之后调用getProduct()相当于直接new，不再有反射调用的访问检查和参数装箱
+ * 生成的工厂按类名缓存，同一个类名只生成一次
+ * @author: linjuanjuan
+ * @date: 2026-10-17 14:55
+ */
+class MethodFactoryLoader {
+
+    private static final Map<String, MethodFactory> factories = new ConcurrentHashMap<>();
+
+    private MethodFactoryLoader() {}
+
+    public static MethodFactory load(String className) {
+        MethodFactory factory = factories.get(className);
+        if (factory != null) {
+            return factory;
+        }
+        return factories.computeIfAbsent(className, name -> new GeneratedMethodFactory(supplier(name)));
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<MethodProduct> supplier(String className) {
+        try {
+            Class<?> clazz = Class.forName(className);
+            if (!MethodProduct.class.isAssignableFrom(clazz)) {
+                throw new IllegalArgumentException("不是MethodProduct的子类 == > " + className);
+            }
+            // 需要能访问产品的构造方法，这里的lookup只能访问同包或public的产品
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    constructor,
+                    MethodType.methodType(clazz));
+            return (Supplier<MethodProduct>) site.getTarget().invoke();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("无法生成工厂 == > " + className, e);
+        }
+    }
+}
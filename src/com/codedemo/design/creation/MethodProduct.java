@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 抽象产品
+ * @author: linjuanjuan
+ * @date: 2020-02-16 10:58
+ */
+abstract class MethodProduct {
+    public abstract void create();
+}
@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 具体工厂A
+ * @author: linjuanjuan
+ * @date: 2020-02-16 10:58
+ */
+class MethodProductFactoryA extends MethodFactory {
+    @Override
+    public MethodProduct getProduct() {
+        return new MethodProductA();
+    }
+}
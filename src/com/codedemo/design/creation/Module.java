@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 产品模具
+ * @author: linjuanjuan
+ * @date: 2020-02-16 11:12
+ */
+abstract class Module extends ProductFamily {
+    @Override
+    public abstract void create();
+}
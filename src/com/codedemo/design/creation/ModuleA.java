@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 模具A
+ * @author: linjuanjuan
+ * @date: 2020-02-16 11:12
+ */
+class ModuleA extends Module {
+    @Override
+    public void create() {
+        System.out.println("模具A创建");
+    }
+}
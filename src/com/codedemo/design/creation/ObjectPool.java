@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * @describe: 对象池
+ * 包装工厂创建的产品，用完归还，下次直接复用，减少频繁创建对象带来的GC压力
+ * 每个线程先从自己的本地缓存中取，取不到再去共享池中取，共享池是无锁的有界环形队列，容量即为maxSize
+ * 两级都取不到时才调用工厂创建新对象，归还时先放本地缓存，满了放共享池，都满了直接丢弃
+ * 归还时会调用reset把对象恢复到初始状态
+ * 使用方式：ObjectPool<Product> pool = new ObjectPool<>(() -> Factory.getProduct("A"), p -> {}, 64);
+ * @author: linjuanjuan
+ * @date: 2026-10-17 14:05
+ */
+public class ObjectPool<T> {
+
+    // 每个线程本地缓存的对象数量
+    private static final int LOCAL_CAPACITY = 8;
+
+    private final Supplier<? extends T> factory;
+    private final Consumer<? super T> reset;
+    private final ThreadLocal<LocalCache<T>> local = ThreadLocal.withInitial(LocalCache::new);
+
+    // 共享池：多生产者多消费者的有界环形队列，每个槽位的序号用来判断槽位是否可写、可读
+    private final int capacity;
+    private final AtomicReferenceArray<T> shared;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder localCached = new LongAdder();
+
+    /**
+     * @param factory 池中没有空闲对象时用来创建对象
+     * @param reset   对象归还时的重置操作
+     * @param maxSize 共享池最多保存的空闲对象数量
+     */
+    public ObjectPool(Supplier<? extends T> factory, Consumer<? super T> reset, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize必须大于0");
+        }
+        this.factory = factory;
+        this.reset = reset;
+        this.capacity = maxSize;
+        this.shared = new AtomicReferenceArray<>(maxSize);
+        this.sequences = new AtomicLongArray(maxSize);
+        for (int i = 0; i < maxSize; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public T acquire() {
+        LocalCache<T> cache = local.get();
+        T obj = cache.poll();
+        if (obj != null) {
+            localCached.decrement();
+        } else {
+            obj = pollShared();
+        }
+        if (obj != null) {
+            hits.increment();
+            return obj;
+        }
+        misses.increment();
+        return factory.get();
+    }
+
+    public void release(T obj) {
+        reset.accept(obj);
+        if (local.get().offer(obj)) {
+            localCached.increment();
+        } else {
+            offerShared(obj);
+        }
+    }
+
+    private T pollShared() {
+        while (true) {
+            long position = head.get();
+            int index = (int) (position % capacity);
+            long sequence = sequences.get(index);
+            if (sequence == position + 1) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T obj = shared.get(index);
+                    shared.lazySet(index, null);
+                    sequences.set(index, position + capacity);
+                    return obj;
+                }
+            } else if (sequence < position + 1) {
+                // 共享池为空
+                return null;
+            }
+        }
+    }
+
+    private void offerShared(T obj) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position % capacity);
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    shared.lazySet(index, obj);
+                    sequences.set(index, position + 1);
+                    return;
+                }
+            } else if (sequence < position) {
+                // 共享池已满，交给GC回收
+                return;
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * 共享池中空闲对象的数量，不包含线程本地缓存中的对象，并发修改时为近似值
+     */
+    public int getPoolSize() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    /**
+     * 所有线程本地缓存中空闲对象的数量，线程结束后它本地缓存中的对象仍然计算在内
+     */
+    public long getLocalCached() {
+        return localCached.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ObjectPool{" +
+                "hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", hitRate=" + String.format("%.2f", getHitRate()) +
+                ", poolSize=" + getPoolSize() +
+                ", localCached=" + getLocalCached() +
+                '}';
+    }
+
+    /**
+     * 线程本地缓存，只会被所属线程访问，不需要同步
+     */
+    private static final class LocalCache<T> {
+        private final Object[] items = new Object[LOCAL_CAPACITY];
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        T poll() {
+            if (size == 0) {
+                return null;
+            }
+            T obj = (T) items[--size];
+            items[size] = null;
+            return obj;
+        }
+
+        boolean offer(T obj) {
+            if (size == items.length) {
+                return false;
+            }
+            items[size++] = obj;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * @describe: 对象池 - 内存分配对比
+ * 分别直接通过工厂创建产品和通过对象池获取产品，统计当前线程分配的内存字节数
+ * 覆盖简单工厂、工厂方法、抽象工厂三种工厂创建的产品
+ * 依赖HotSpot的com.sun.management.ThreadMXBean统计线程分配的内存
+ * @author: linjuanjuan
+ * @date: 2026-10-17 14:40
+ */
+public class ObjectPoolBenchmark {
+
+    private static final int ITERATIONS = 10_000_000;
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // 防止JIT把没有使用的对象优化掉
+    private static int sink;
+
+    public static void main(String[] args) {
+        MethodFactory methodFactory = new MethodProductFactoryA();
+        AbsFactory absFactory = new AbsFactoryA();
+
+        bench("SimpleFactory", () -> Factory.getProduct("A"));
+        bench("FactoryMethod", methodFactory::getProduct);
+        bench("AbstractFactory", absFactory::getContainer);
+    }
+
+    private static <T> void bench(String name, Supplier<T> factory) {
+        ObjectPool<T> pool = new ObjectPool<>(factory, obj -> {}, 64);
+        for (int round = 0; round < 2; round++) {
+            long bytes = allocated();
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += factory.get().hashCode();
+            }
+            long cost = System.nanoTime() - start;
+            bytes = allocated() - bytes;
+            System.out.printf("%-16s 直接创建 %8.2f bytes/op %6.2f ns/op%n", name,
+                    (double) bytes / ITERATIONS, (double) cost / ITERATIONS);
+
+            bytes = allocated();
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                T product = pool.acquire();
+                sink += product.hashCode();
+                pool.release(product);
+            }
+            cost = System.nanoTime() - start;
+            bytes = allocated() - bytes;
+            System.out.printf("%-16s 对象池   %8.2f bytes/op %6.2f ns/op %s%n", name,
+                    (double) bytes / ITERATIONS, (double) cost / ITERATIONS, pool);
+        }
+    }
+
+    private static long allocated() {
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
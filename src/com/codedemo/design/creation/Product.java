@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 抽象产品
+ * @author: linjuanjuan
+ * @date: 2020-02-16 10:48
+ */
+abstract class Product {
+    public abstract void create();
+}
@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 具体产品A
+ * @author: linjuanjuan
+ * @date: 2020-02-16 10:48
+ */
+class ProductA extends Product {
+    @Override
+    public void create() {
+        System.out.println("创建产品A");
+    }
+}
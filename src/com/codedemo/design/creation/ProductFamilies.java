@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+/**
+ * @describe: 批量创建的产品家族，下标相同的容器和模具属于同一套产品
+ * @author: linjuanjuan
+ * @date: 2026-10-17 15:40
+ */
+class ProductFamilies {
+    private final Container[] containers;
+    private final Module[] modules;
+
+    public ProductFamilies(Container[] containers, Module[] modules) {
+        this.containers = containers;
+        this.modules = modules;
+    }
+
+    public int size() {
+        return containers.length;
+    }
+
+    public Container getContainer(int index) {
+        return containers[index];
+    }
+
+    public Module getModule(int index) {
+        return modules[index];
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @describe: 可以复制的类，必须继承Cloneable，否则在复制时报错CloneNotSupportedException
+ * @author: linjuanjuan
+ * @date: 2020-02-16 11:51
+ */
+class Prototype implements Cloneable, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+    // 配置在多个复制品之间共享，只读访问，修改前需要先确保是自己独占的
+    // 共享的配置不会再被任何对象修改，configOwned只由对象自己修改
+    private Map<String, String> config = Collections.emptyMap();
+    private boolean configOwned;
+    // 独占配置的不可变快照，复制时共享给复制品，修改配置时作废
+    // 多个线程同时复制时可能各自生成一份快照，内容相同，不影响正确性
+    private transient volatile Map<String, String> snapshot;
+
+    public Prototype() {}
+
+    /**
+     * 复制构造方法，会立即复制一份配置
+     */
+    public Prototype(Prototype other) {
+        this.name = other.name;
+        this.config = new HashMap<>(other.config);
+        this.configOwned = true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getConfig(String key) {
+        return config.get(key);
+    }
+
+    public Map<String, String> getConfig() {
+        return Collections.unmodifiableMap(config);
+    }
+
+    public void putConfig(String key, String value) {
+        ownConfig().put(key, value);
+    }
+
+    public void removeConfig(String key) {
+        ownConfig().remove(key);
+    }
+
+    // 写时复制：配置还在和其他对象共享时，先复制一份再修改，修改后之前的快照作废
+    private Map<String, String> ownConfig() {
+        if (!configOwned) {
+            config = new HashMap<>(config);
+            configOwned = true;
+        }
+        snapshot = null;
+        return config;
+    }
+
+    // 复制品共享的配置：共享的配置直接返回，独占的配置冻结为快照，配置不变时只冻结一次
+    private Map<String, String> sharedConfig() {
+        if (!configOwned) {
+            return config;
+        }
+        Map<String, String> frozen = snapshot;
+        if (frozen == null) {
+            frozen = Collections.unmodifiableMap(new HashMap<>(config));
+            snapshot = frozen;
+        }
+        return frozen;
+    }
+
+    /**
+     * 复制品共享原对象配置的不可变快照，第一次修改时才复制，原对象之后的修改不会影响复制品
+     * 多个线程可以同时复制同一个原型，复制时只会生成原对象配置的快照，不会修改原对象的配置
+     */
+    @Override
+    protected Prototype clone() {
+        Object obj = null;
+        try {
+            obj = super.clone();
+            Prototype copy = (Prototype) obj;
+            copy.config = sharedConfig();
+            copy.configOwned = false;
+            copy.snapshot = null;
+        } catch (CloneNotSupportedException e) {
+            System.out.println("clone is not support");
+        }
+        return (Prototype) obj;
+    }
+
+    /**
+     * 一次复制n份，所有复制品共享同一份配置快照
+     */
+    public Prototype[] cloneMany(int n) {
+        Prototype[] copies = new Prototype[n];
+        for (int i = 0; i < n; i++) {
+            copies[i] = clone();
+        }
+        return copies;
+    }
+}
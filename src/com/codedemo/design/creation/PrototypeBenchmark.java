@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.Supplier;
+
+/**
+ * @describe: 原型模式 - 复制方式性能对比
+ * 对比clone()（共享配置快照，写时复制）、复制构造方法、序列化深复制、从预复制池中取四种方式获取一个复制品的耗时
+ * 原型中放入较多的配置，体现复制耗时与配置大小的关系
+ * 模板的配置在第一次clone时冻结为快照，之后的clone只复制引用；clone后立即修改配置时仍然要复制一次，与复制构造方法相当
+ * @author: linjuanjuan
+ * @date: 2026-10-17 17:05
+ */
+public class PrototypeBenchmark {
+
+    private static final int CONFIG_SIZE = 1000;
+    private static final int ITERATIONS = 1_000_000;
+    private static final int SERIALIZE_ITERATIONS = 2_000;
+
+    // 防止JIT把没有使用的对象优化掉
+    private static Object sink;
+
+    public static void main(String[] args) {
+        Prototype template = new Prototype();
+        template.setName("模板");
+        for (int i = 0; i < CONFIG_SIZE; i++) {
+            template.putConfig("key" + i, "value" + i);
+        }
+        try (PrototypePool pool = new PrototypePool(template, 1024)) {
+            for (int round = 0; round < 2; round++) {
+                bench("clone", template::clone, ITERATIONS);
+                bench("clone后修改", () -> {
+                    Prototype copy = template.clone();
+                    copy.putConfig("key0", "changed");
+                    return copy;
+                }, ITERATIONS / 100);
+                bench("复制构造方法", () -> new Prototype(template), ITERATIONS / 100);
+                bench("序列化深复制", () -> deepCopy(template), SERIALIZE_ITERATIONS);
+                bench("预复制池", pool::take, ITERATIONS);
+            }
+        }
+    }
+
+    private static void bench(String name, Supplier<Prototype> copier, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            sink = copier.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = copier.get();
+        }
+        System.out.printf("%-10s %,12.2f ns/op%n", name, (double) (System.nanoTime() - start) / iterations);
+    }
+
+    private static Prototype deepCopy(Prototype prototype) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(prototype);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                return (Prototype) in.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("序列化复制失败", e);
+        }
+    }
+}
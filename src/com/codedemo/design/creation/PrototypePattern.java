@@ -3,9 +3,16 @@
  */
 package com.codedemo.design.creation;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * @describe: 原型模式
  * 通过复制现有对象来创建新实例，常用于创建实例代价大的情况，利用object中的clone()方法进行复制
+ * 原型注册表PrototypeRegistry按名字保存原型，需要时直接复制一份
+ * 原型中代价大的配置采用写时复制，共享的配置在复制时只复制引用，第一次修改时才真正复制
+ * 原对象独占的配置在第一次被复制时冻结为一份不可变快照并缓存，修改配置时作废，之后的复制都共享这份快照，复制的耗时与配置大小无关
+ * 需要一次复制多份时使用cloneMany，请求频繁时可以使用PrototypePool在后台提前复制好，请求时直接取用
  * @author: linjuanjuan
  * @date: 2020-02-16 11:51
  */
@@ -16,31 +23,45 @@ public class PrototypePattern {
         System.out.println("实例 == > " + prototype.getName());
         Prototype prototype1 = prototype.clone();
         System.out.println("实例 == > " + prototype1.getName());
+
+        PrototypeRegistry registry = new PrototypeRegistry();
+        Prototype template = new Prototype();
+        template.setName("模板");
+        template.putConfig("timeout", "3000");
+        registry.register("default", template);
+        Prototype copy = registry.get("default");
+        copy.putConfig("timeout", "5000");
+        System.out.println("模板 == > " + template.getConfig("timeout") + "，复制 == > " + copy.getConfig("timeout"));
+
+        System.out.println("批量复制 == > " + template.cloneMany(3).length);
+        PrototypePool pool = new PrototypePool(template, 16);
+        System.out.println("预复制 == > " + pool.take().getName());
+        pool.close();
     }
 }
 
 /**
- * 可以复制的类，必须继承Cloneable，否则在复制时报错CloneNotSupportedException
+ * 原型注册表，按名字保存原型，获取时返回原型的复制品
  */
-class Prototype implements Cloneable {
-    private String name;
+class PrototypeRegistry {
 
-    public String getName() {
-        return name;
-    }
+    private final Map<String, Prototype> prototypes = new ConcurrentHashMap<>();
 
-    public void setName(String name) {
-        this.name = name;
+    public void register(String name, Prototype prototype) {
+        // 保存一份复制品，之后调用方再修改传入的对象也不会影响注册表中的原型
+        // 复制品的配置是共享的，之后被多个线程同时复制时只读不写
+        prototypes.put(name, prototype.clone());
     }
 
-    @Override
-    protected Prototype clone() {
-        Object obj = null;
-        try {
-            obj = super.clone();
-        } catch (CloneNotSupportedException e) {
-            System.out.println("clone is not support");
+    public Prototype get(String name) {
+        Prototype prototype = prototypes.get(name);
+        if (prototype == null) {
+            throw new IllegalArgumentException("原型未注册 == > " + name);
         }
-        return (Prototype) obj;
+        return prototype.clone();
     }
-}
\ No newline at end of file
+
+    public void remove(String name) {
+        prototypes.remove(name);
+    }
+}
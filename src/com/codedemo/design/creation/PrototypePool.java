@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * @describe: 预复制的原型池，后台线程持续复制原型放入池中，池满后等待被取走再补充
+ * 请求时直接从池中取一个现成的复制品，池为空时不等待，当场复制一份
+ * @author: linjuanjuan
+ * @date: 2026-10-17 17:00
+ */
+class PrototypePool implements AutoCloseable {
+
+    private final Prototype prototype;
+    private final BlockingQueue<Prototype> copies;
+    private final Thread replenisher;
+
+    public PrototypePool(Prototype prototype, int capacity) {
+        // 保存一份复制品，避免调用方之后修改原型
+        this.prototype = prototype.clone();
+        this.copies = new ArrayBlockingQueue<>(capacity);
+        this.replenisher = new Thread(this::replenish, "prototype-pool-replenisher");
+        this.replenisher.setDaemon(true);
+        this.replenisher.start();
+    }
+
+    public Prototype take() {
+        Prototype copy = copies.poll();
+        return copy != null ? copy : prototype.clone();
+    }
+
+    private void replenish() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                copies.put(prototype.clone());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        replenisher.interrupt();
+    }
+}
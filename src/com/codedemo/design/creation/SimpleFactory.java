@@ -3,10 +3,16 @@
  */
 package com.codedemo.design.creation;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
 /**
  * @describe: 简单工厂模式
  * 通过抽象产品定义产品的所有属性
  * 一个工厂，可以创建所有产品，使用者仅需要知道产品的名字，不需要知道产品的具体生产过程
+ * RegistryFactory是注册式的简单工厂，新增产品时不需要修改工厂的switch
  * @author: linjuanjuan
  * @date: 2020-02-16 10:48
  */
@@ -14,48 +20,79 @@ public class SimpleFactory {
     public static void main(String[] args) {
         Factory.getProduct("A").create();
         Factory.getProduct("B").create();
+
+        RegistryFactory factory = new RegistryFactory();
+        factory.register("A", ProductA::new);
+        factory.register("B", ProductB::new, true);
+        // 名字只解析一次，之后通过int句柄创建产品
+        int productA = factory.handle("A");
+        int productB = factory.handle("B");
+        factory.create(productA).create();
+        System.out.println("共享实例 == > " + (factory.create(productB) == factory.create(productB)));
     }
 }
 
 /**
- * 抽象产品
+ * 注册式工厂，产品通过Supplier注册到工厂中
+ * 注册时为产品分配一个int句柄，创建产品时直接按句柄从数组中取Supplier，不需要每次对名字做hash
+ * 无状态的产品可以注册为共享实例，每次返回同一个对象，不再重复创建
  */
-abstract class Product {
-    public abstract void create();
-}
+class RegistryFactory {
 
-/**
- * 具体产品A
- */
-class ProductA extends Product {
-    @Override
-    public void create() {
-        System.out.println("创建产品A");
+    // 名字到句柄的映射，查找不加锁
+    private final Map<String, Integer> handles = new ConcurrentHashMap<>();
+    // 注册时整体替换数组，创建时只读，不需要加锁
+    private volatile Supplier<?>[] suppliers = new Supplier<?>[0];
+    private volatile Product[] shared = new Product[0];
+
+    public int register(String name, Supplier<? extends Product> supplier) {
+        return register(name, supplier, false);
     }
-}
 
-/**
- * 具体产品B
- */
-class ProductB extends Product {
-    @Override
-    public void create() {
-        System.out.println("创建产品B");
+    /**
+     * 注册产品
+     * @param shared 为true时产品只创建一次，之后返回同一个实例，适用于无状态的产品
+     * @return 产品的句柄
+     */
+    public synchronized int register(String name, Supplier<? extends Product> supplier, boolean shared) {
+        if (handles.containsKey(name)) {
+            throw new IllegalArgumentException("产品已经注册 == > " + name);
+        }
+        int handle = suppliers.length;
+        Supplier<?>[] nextSuppliers = Arrays.copyOf(suppliers, handle + 1);
+        Product[] nextShared = Arrays.copyOf(this.shared, handle + 1);
+        nextSuppliers[handle] = supplier;
+        if (shared) {
+            nextShared[handle] = supplier.get();
+        }
+        this.shared = nextShared;
+        this.suppliers = nextSuppliers;
+        // 数组发布之后才能通过名字查到句柄
+        handles.put(name, handle);
+        return handle;
     }
-}
 
-/**
- * 工厂，静态方法创建产品
- */
-class Factory {
-    public static Product getProduct(String name) {
-        switch (name) {
-            case "A":
-                return new ProductA();
-            case "B":
-                return new ProductB();
-            default:
-                return null;
+    /**
+     * 把产品名字解析为句柄，未注册的产品抛出异常，而不是返回null
+     */
+    public int handle(String name) {
+        Integer handle = handles.get(name);
+        if (handle == null) {
+            throw new IllegalArgumentException("产品未注册 == > " + name);
+        }
+        return handle;
+    }
+
+    public Product create(int handle) {
+        Supplier<?>[] current = suppliers;
+        if (handle < 0 || handle >= current.length) {
+            throw new IllegalArgumentException("产品未注册 == > " + handle);
         }
+        Product product = shared[handle];
+        return product != null ? product : (Product) current[handle].get();
     }
-}
\ No newline at end of file
+
+    public Product getProduct(String name) {
+        return create(handle(name));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * @describe: 单例模式 - 性能对比
+ * 对比各种单例写法getInstance()的性能
+ * 热访问：分别在1、4、16、64个线程下同时调用，统计吞吐量和平均每次调用耗时
+ * 冷访问：每次都用新的类加载器加载单例类，统计首次访问（类加载 + 初始化 + 创建实例）的耗时
+ * @author: linjuanjuan
+ * @date: 2026-10-17 10:40
+ */
+public class SingletonBenchmark {
+
+    private static final int[] THREADS = {1, 4, 16, 64};
+    private static final int OPERATIONS = 10_000_000;
+    private static final int COLD_ROUNDS = 20;
+
+    private static final Map<String, Supplier<Object>> SINGLETONS = new LinkedHashMap<>();
+
+    static {
+        SINGLETONS.put("SingletonHungry", SingletonHungry::getInstance);
+        SINGLETONS.put("SingletonLazy", SingletonLazy::getInstance);
+        SINGLETONS.put("SingletonLazyDoubleCheck", SingletonLazyDoubleCheck::getInstance);
+        SINGLETONS.put("SingletonLazyInnerClass", SingletonLazyInnerClass::getInstance);
+        SINGLETONS.put("SingletonRegisterEnum", SingletonRegisterEnum::getInstance);
+        SINGLETONS.put("SingletonThreadLocal", SingletonThreadLocal::getInstance);
+    }
+
+    // 防止JIT把没有使用结果的调用优化掉
+    private static volatile int sink;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("==== 冷访问 ====");
+        for (String name : SINGLETONS.keySet()) {
+            System.out.printf("%-26s %,d ns%n", name, cold(name));
+        }
+        System.out.println("==== 热访问 ====");
+        for (int threads : THREADS) {
+            for (Map.Entry<String, Supplier<Object>> entry : SINGLETONS.entrySet()) {
+                hot(entry.getKey(), entry.getValue(), threads);
+            }
+        }
+    }
+
+    /**
+     * 用隔离的类加载器重新加载单例类，保证每一轮都是第一次访问
+     * @return 平均每次首次访问的耗时，单位纳秒
+     */
+    private static long cold(String simpleName) throws Exception {
+        String className = SingletonBenchmark.class.getPackage().getName() + "." + simpleName;
+        URL codeSource = SingletonBenchmark.class.getProtectionDomain().getCodeSource().getLocation();
+        long total = 0;
+        for (int i = 0; i < COLD_ROUNDS; i++) {
+            try (URLClassLoader loader = new URLClassLoader(new URL[]{codeSource}, null)) {
+                long start = System.nanoTime();
+                Class<?> clazz = Class.forName(className, true, loader);
+                Object instance = clazz.getMethod("getInstance").invoke(null);
+                total += System.nanoTime() - start;
+                sink += instance.hashCode();
+            }
+        }
+        return total / COLD_ROUNDS;
+    }
+
+    private static void hot(String name, Supplier<Object> supplier, int threads) throws InterruptedException {
+        int perThread = OPERATIONS / threads;
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] costs = new long[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            workers[t] = new Thread(() -> {
+                int local = 0;
+                // 预热
+                for (int i = 0; i < perThread; i++) {
+                    local += supplier.get().hashCode();
+                }
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long begin = System.nanoTime();
+                for (int i = 0; i < perThread; i++) {
+                    local += supplier.get().hashCode();
+                }
+                costs[index] = System.nanoTime() - begin;
+                sink += local;
+            });
+            workers[t].start();
+        }
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long wall = System.nanoTime() - begin;
+        long sum = 0;
+        for (long cost : costs) {
+            sum += cost;
+        }
+        double latency = (double) sum / ((long) perThread * threads);
+        double throughput = (double) perThread * threads / wall * 1_000_000_000L;
+        System.out.printf("threads=%-3d %-26s %,15.0f ops/s %8.2f ns/op%n", threads, name, throughput, latency);
+    }
+}
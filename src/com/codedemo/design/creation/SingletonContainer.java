@@ -3,35 +3,147 @@
  */
 package com.codedemo.design.creation;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @describe: 单例模式 - 容器式
  * 利用容器创建单例对象，类似于spring ioc
- * 对象方便管理，属于懒加载，但是会存在线程安全问题
+ * 对象方便管理，属于懒加载
+ * 读取时先直接从ConcurrentHashMap中取，命中时不加任何锁
+ * 未命中时通过computeIfAbsent创建，同一个key只会实例化一次，不同key之间互不阻塞
+ * 注意：bean的构造方法中不要再通过getBean去创建其他尚未创建的bean，computeIfAbsent不支持递归创建
+ * 按类型获取时可以使用get，基于ClassValue把bean挂在Class对象上，不需要对类名做hash和equals比较
+ * 启动时可以通过preInstantiate按照依赖关系提前创建所有bean，没有依赖关系的bean在ForkJoinPool中并行创建
  * @author: linjuanjuan
  * @date: 2020-05-25 21:38
  */
 public class SingletonContainer {
 
-    private static Map<String, Object> ioc = new ConcurrentHashMap<>();
+    private static final Map<String, Object> ioc = new ConcurrentHashMap<>();
+
+    // 每个Class对象上独立的槽位，首次访问时从ioc中取出（或创建）bean，之后直接读取
+    // 创建失败时抛出异常，ClassValue不会缓存，下次访问时还可以重试
+    private static final ClassValue<Object> typed = new ClassValue<Object>() {
+        @Override
+        protected Object computeValue(Class<?> type) {
+            return createBean(type);
+        }
+    };
 
     private SingletonContainer () {}
 
     public static Object getBean(String className) {
-        synchronized (ioc) {
-            if (!ioc.containsKey(className)) {
-                try {
-                    Object obj = Class.forName(className);
-                    return obj;
-                } catch (ClassNotFoundException e) {
-                    e.printStackTrace();
-                    return null;
-                }
-            } else {
-                return ioc.get(className);
-            }
+        try {
+            return createBean(className);
+        } catch (IllegalStateException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public static <T> T getBean(Class<T> clazz) {
+        try {
+            return createBean(clazz);
+        } catch (IllegalStateException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public static <T> T get(Class<T> clazz) {
+        return clazz.cast(typed.get(clazz));
+    }
+
+    /**
+     * 启动阶段提前创建bean
+     * @param dependencies key为bean的类型，value为它依赖的bean类型，依赖的bean会先于它创建
+     * @param pool 用于并行创建bean的线程池
+     * @return 每个bean的创建耗时，单位纳秒
+     */
+    public static Map<String, Long> preInstantiate(Map<Class<?>, List<Class<?>>> dependencies, ForkJoinPool pool) {
+        Map<String, Long> costs = new ConcurrentHashMap<>();
+        Map<Class<?>, CompletableFuture<Void>> futures = new HashMap<>();
+        for (Class<?> clazz : dependencies.keySet()) {
+            schedule(clazz, dependencies, pool, costs, futures, new HashMap<>());
+        }
+        // 任意一个bean创建失败时，这里抛出CompletionException，启动失败
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        return costs;
+    }
+
+    public static Map<String, Long> preInstantiate(Map<Class<?>, List<Class<?>>> dependencies) {
+        return preInstantiate(dependencies, ForkJoinPool.commonPool());
+    }
+
+    // 按拓扑顺序为每个bean生成任务，所有依赖完成后才开始创建自己，visiting用于检查循环依赖
+    private static CompletableFuture<Void> schedule(Class<?> clazz, Map<Class<?>, List<Class<?>>> dependencies,
+                                                    ForkJoinPool pool, Map<String, Long> costs,
+                                                    Map<Class<?>, CompletableFuture<Void>> futures,
+                                                    Map<Class<?>, Boolean> visiting) {
+        CompletableFuture<Void> future = futures.get(clazz);
+        if (future != null) {
+            return future;
+        }
+        if (visiting.put(clazz, Boolean.TRUE) != null) {
+            throw new IllegalArgumentException("存在循环依赖 == > " + clazz.getName());
+        }
+        List<Class<?>> depends = dependencies.getOrDefault(clazz, Collections.emptyList());
+        CompletableFuture<?>[] dependFutures = new CompletableFuture<?>[depends.size()];
+        for (int i = 0; i < dependFutures.length; i++) {
+            dependFutures[i] = schedule(depends.get(i), dependencies, pool, costs, futures, visiting);
+        }
+        visiting.remove(clazz);
+        future = CompletableFuture.allOf(dependFutures).thenRunAsync(() -> {
+            long start = System.nanoTime();
+            createBean(clazz);
+            costs.put(clazz.getName(), System.nanoTime() - start);
+        }, pool);
+        futures.put(clazz, future);
+        return future;
+    }
+
+    // 创建失败时抛出IllegalStateException
+    private static Object createBean(String className) {
+        // 命中缓存，无锁读取
+        Object bean = ioc.get(className);
+        if (bean != null) {
+            return bean;
+        }
+        return ioc.computeIfAbsent(className, SingletonContainer::newInstance);
+    }
+
+    // 直接用传入的Class创建，不再按类名重新加载，其他类加载器加载的类也可以使用
+    private static <T> T createBean(Class<T> clazz) {
+        String className = clazz.getName();
+        Object bean = ioc.get(className);
+        if (bean == null) {
+            bean = ioc.computeIfAbsent(className, name -> newInstance(clazz));
+        }
+        if (!clazz.isInstance(bean)) {
+            throw new IllegalStateException("同名的类已经由其他类加载器创建 == > " + className);
+        }
+        return clazz.cast(bean);
+    }
+
+    private static Object newInstance(Class<?> clazz) {
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法创建实例 == > " + clazz.getName(), e);
+        }
+    }
+
+    private static Object newInstance(String className) {
+        try {
+            return Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法创建实例 == > " + className, e);
         }
     }
 
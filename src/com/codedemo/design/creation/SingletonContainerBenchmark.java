@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.util.function.Supplier;
+
+/**
+ * @describe: 容器式单例 - 性能对比
+ * 对比按类名获取getBean(String)和基于ClassValue按类型获取get(Class)的耗时
+ * 先预热让JIT完成编译，再统计每次调用的平均耗时
+ * @author: linjuanjuan
+ * @date: 2026-10-17 10:12
+ */
+public class SingletonContainerBenchmark {
+
+    private static final int WARMUP = 5_000_000;
+    private static final int ITERATIONS = 50_000_000;
+    private static final String BEAN_NAME = ContainerBean.class.getName();
+
+    // 防止JIT把没有使用结果的调用优化掉
+    private static int sink;
+
+    public static void main(String[] args) {
+        for (int round = 0; round < 3; round++) {
+            bench("getBean(String)", () -> SingletonContainer.getBean(BEAN_NAME));
+            bench("get(Class)", () -> SingletonContainer.get(ContainerBean.class));
+        }
+        System.out.println("sink == > " + sink);
+    }
+
+    private static void bench(String name, Supplier<Object> supplier) {
+        for (int i = 0; i < WARMUP; i++) {
+            sink += supplier.get().hashCode();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += supplier.get().hashCode();
+        }
+        long cost = System.nanoTime() - start;
+        System.out.printf("%-20s %.2f ns/op%n", name, (double) cost / ITERATIONS);
+    }
+}
+
+/**
+ * 测试用的bean
+ */
+class ContainerBean {
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * @describe: 作用域单例
+ * SingletonThreadLocal的替代方案，实例绑定在一次请求（一个工作单元）上，而不是绑定在线程上
+ * 使用虚拟线程时，每个请求一个线程，ThreadLocal会为每个虚拟线程都创建一个实例和一个ThreadLocalMap的entry
+ * 这里通过显式的Scope句柄持有实例，作用域结束时实例放回一个有界的分段缓存中，供后续的作用域复用
+ * 缓存按线程id分段，每段只保存一个实例，缓存大小固定，不会随线程数量增长
+ * @author: linjuanjuan
+ * @date: 2026-10-17 11:30
+ */
+public class SingletonScoped {
+
+    // 分段数量，必须是2的幂
+    private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+    private static final AtomicReferenceArray<SingletonScoped> cache = new AtomicReferenceArray<>(STRIPES);
+
+    private SingletonScoped () {}
+
+    public static Scope openScope() {
+        return new Scope();
+    }
+
+    /**
+     * 在一个作用域内执行任务，任务结束后自动关闭作用域
+     */
+    public static <R> R callInScope(Function<SingletonScoped, R> task) {
+        try (Scope scope = openScope()) {
+            return task.apply(scope.getInstance());
+        }
+    }
+
+    private static int stripe() {
+        return (int) Thread.currentThread().getId() & (STRIPES - 1);
+    }
+
+    private static SingletonScoped acquire() {
+        SingletonScoped instance = cache.getAndSet(stripe(), null);
+        return instance != null ? instance : new SingletonScoped();
+    }
+
+    private static void release(SingletonScoped instance) {
+        // 当前分段已经有缓存的实例时直接丢弃，交给GC回收
+        cache.compareAndSet(stripe(), null, instance);
+    }
+
+    /**
+     * 作用域句柄，同一个作用域内获取到的始终是同一个实例
+     * 作用域只能在一个工作单元内使用，不要在多个线程间共享
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private SingletonScoped instance;
+        private boolean closed;
+
+        private Scope() {}
+
+        public SingletonScoped getInstance() {
+            if (closed) {
+                throw new IllegalStateException("作用域已经关闭");
+            }
+            if (instance == null) {
+                instance = acquire();
+            }
+            return instance;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (instance != null) {
+                release(instance);
+                instance = null;
+            }
+        }
+    }
+
+}
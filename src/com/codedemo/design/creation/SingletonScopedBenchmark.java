@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.creation;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @describe: 作用域单例 - 内存对比
+ * 同时挂起大量工作单元，对比SingletonThreadLocal和SingletonScoped的堆内存占用
+ * JDK支持虚拟线程时，每个工作单元一个虚拟线程，共100k个
+ * 不支持时退化为平台线程，并发数量降低到2k个，结果仍按每个工作单元折算
+ * @author: linjuanjuan
+ * @date: 2026-10-17 11:52
+ */
+public class SingletonScopedBenchmark {
+
+    private static final int VIRTUAL_TASKS = 100_000;
+    private static final int PLATFORM_TASKS = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        measure("SingletonThreadLocal", SingletonThreadLocal::getInstance);
+        measure("SingletonScoped", () -> {
+            SingletonScoped.Scope scope = SingletonScoped.openScope();
+            scope.getInstance();
+            return scope;
+        });
+    }
+
+    private static void measure(String name, Unit unit) throws Exception {
+        ExecutorService executor = virtualExecutor();
+        boolean virtual = executor != null;
+        int tasks = virtual ? VIRTUAL_TASKS : PLATFORM_TASKS;
+        if (!virtual) {
+            executor = Executors.newFixedThreadPool(tasks);
+        }
+        long before = usedMemory();
+        CountDownLatch started = new CountDownLatch(tasks);
+        CountDownLatch finish = new CountDownLatch(1);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                Object held = unit.begin();
+                started.countDown();
+                try {
+                    finish.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (held instanceof AutoCloseable) {
+                    try {
+                        ((AutoCloseable) held).close();
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+            });
+        }
+        started.await();
+        long during = usedMemory();
+        finish.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        System.out.printf("%-22s %s线程 x %,d  共 %,d bytes  每个工作单元 %,d bytes%n", name,
+                virtual ? "虚拟" : "平台", tasks, during - before, (during - before) / tasks);
+    }
+
+    // 通过反射获取虚拟线程的线程池，这样在不支持虚拟线程的JDK上也能编译运行
+    private static ExecutorService virtualExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * 一个工作单元开始时做的事情，返回值在工作单元结束前一直被持有
+     */
+    private interface Unit {
+        Object begin();
+    }
+}
@@ -3,14 +3,29 @@
  */
 package com.codedemo.design.creation;
 
+import java.util.Arrays;
+
 /**
  * @describe: 线程单例
  * 使用ThreadLocal来实现多数据源动态切换
+ * 每个线程持有一个路由栈，pushRoute切换数据源并返回RouteScope，关闭RouteScope恢复到上一个数据源，支持嵌套切换
+ * 路由用int表示，切换时只是数组读写，具体的路由见DataSourceRouting
+ * 每次切换返回一个新的RouteScope，记录切换时的版本号，关闭过的或者已经失效的RouteScope再次关闭时不会恢复别人的路由
+ * RouteScope只有几个字段，在try-with-resources中使用时一般会被逃逸分析消除，不会真正分配对象
  * @author: linjuanjuan
  * @date: 2020-05-25 21:53
  */
 public class SingletonThreadLocal {
 
+    // 没有切换过数据源时使用的默认路由
+    public static final int DEFAULT_ROUTE = 0;
+
+    private int[] routes = new int[8];
+    // 每一层切换时的版本号，RouteScope关闭时用来确认这一层还是自己切换的
+    private long[] generations = new long[8];
+    private long generation;
+    private int depth;
+
     private SingletonThreadLocal () {}
 
     private static final ThreadLocal<SingletonThreadLocal> threadLocal =
@@ -25,4 +40,68 @@ public class SingletonThreadLocal {
         return threadLocal.get();
     }
 
+    /**
+     * 切换到指定路由，配合try-with-resources在结束时自动恢复
+     */
+    public RouteScope pushRoute(int route) {
+        if (route < 0) {
+            throw new IllegalArgumentException("路由不能小于0 == > " + route);
+        }
+        if (depth == routes.length) {
+            routes = Arrays.copyOf(routes, depth << 1);
+            generations = Arrays.copyOf(generations, depth << 1);
+        }
+        routes[depth] = route;
+        generations[depth] = ++generation;
+        depth++;
+        return new RouteScope(this, route, depth, generation);
+    }
+
+    public void popRoute() {
+        if (depth == 0) {
+            throw new IllegalStateException("没有可以恢复的路由");
+        }
+        depth--;
+    }
+
+    public int currentRoute() {
+        return depth == 0 ? DEFAULT_ROUTE : routes[depth - 1];
+    }
+
+    /**
+     * 一层路由切换，关闭时恢复到上一层路由
+     * 必须按照切换的相反顺序关闭，否则抛出异常，重复关闭时什么都不做
+     */
+    public static final class RouteScope implements AutoCloseable {
+
+        private final SingletonThreadLocal owner;
+        private final int route;
+        private final int depth;
+        private final long generation;
+        private boolean closed;
+
+        private RouteScope(SingletonThreadLocal owner, int route, int depth, long generation) {
+            this.owner = owner;
+            this.route = route;
+            this.depth = depth;
+            this.generation = generation;
+        }
+
+        public int route() {
+            return route;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            if (owner.depth != depth || owner.generations[depth - 1] != generation) {
+                throw new IllegalStateException("路由切换没有按顺序恢复");
+            }
+            closed = true;
+            owner.popRoute();
+        }
+    }
+
 }
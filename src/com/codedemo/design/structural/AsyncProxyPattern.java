@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * @describe: 代理模式 - 异步批量后置处理
+ * 代理调用完目标对象后，不在调用方线程上执行额外操作，而是提交给BatchProcessor，由后台线程批量执行
+ * 调用方的耗时不再包含额外操作，多个额外操作合并成一批执行，例如多个包裹一次寄出
+ * 队列满时在调用方线程上直接执行，不丢弃额外操作
+ * @author: linjuanjuan
+ * @date: 2026-10-17 19:45
+ */
+public class AsyncProxyPattern {
+    public static void main(String[] args) {
+        try (BatchProcessor<String> shipping = new BatchProcessor<>(1024, 16, 10, AsyncProxyPattern::ship)) {
+            StaticSubject staticProxy = new AsyncStaticProxy(new StaticRealSubject(), shipping);
+            staticProxy.buyMac();
+            staticProxy.buyMac();
+
+            DynamicSubject target = new DynamicRealSubject();
+            DynamicSubject dynamicProxy = (DynamicSubject) Proxy.newProxyInstance(target.getClass().getClassLoader(),
+                    target.getClass().getInterfaces(), new DynamicProxy(target, () -> {
+                        if (!shipping.submit("Mac")) {
+                            ship(List.of("Mac"));
+                        }
+                    }));
+            dynamicProxy.buyMac();
+        }
+    }
+
+    static void ship(List<String> parcels) {
+        System.out.println("打包" + parcels.size() + "台" + parcels.get(0) + "，寄出");
+    }
+}
+
+/**
+ * 后置操作异步执行的静态代理
+ */
+class AsyncStaticProxy implements StaticSubject {
+    private StaticSubject target;
+    private BatchProcessor<String> shipping;
+
+    public AsyncStaticProxy(StaticSubject target, BatchProcessor<String> shipping) {
+        this.target = target;
+        this.shipping = shipping;
+    }
+
+    @Override
+    public void buyMac() {
+        target.buyMac();
+        // 代理做的额外操作，提交给后台线程
+        if (!shipping.submit("Mac")) {
+            AsyncProxyPattern.ship(List.of("Mac"));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * @describe: 异步批量处理
+ * 多个线程提交任务，一个后台线程批量处理，调用方不需要等待处理完成
+ * 队列为有界的多生产者单消费者环形队列，提交时只有一次CAS，不加锁
+ * 后台线程攒够batchSize个任务，或者距离这一批第一个任务已经过了linger时间，就处理一批
+ * 队列满时submit返回false，由调用方决定如何处理，例如在当前线程直接处理
+ * 队列为空时后台线程一直休眠，直到有任务提交时被唤醒；攒批时最多休眠到这一批的linger时间
+ * 关闭时在tail上打上关闭标记，之后的submit一定返回false，标记之前提交成功的任务一定会被处理
+ * @author: linjuanjuan
+ * @date: 2026-10-17 19:45
+ */
+public class BatchProcessor<T> implements AutoCloseable {
+
+    // tail上的关闭标记，位置不会增长到这么大
+    private static final long CLOSED = 1L << 62;
+
+    private final int mask;
+    private final AtomicReferenceArray<T> buffer;
+    // 每个槽位的序号，用来判断槽位是否可写、可读
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Consumer<List<T>> handler;
+    private final Thread worker;
+    // 后台线程准备休眠时设置，提交任务的线程看到后负责唤醒
+    private volatile boolean sleeping;
+
+    /**
+     * @param capacity 队列容量，会向上取整为2的幂
+     * @param batchSize 每批最多处理的任务数量
+     * @param lingerMillis 一批任务最多等待的时间
+     * @param handler 批量处理任务
+     */
+    public BatchProcessor(int capacity, int batchSize, long lingerMillis, Consumer<List<T>> handler) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("capacity和batchSize必须大于0");
+        }
+        int size = Integer.highestOneBit(capacity - 1 | 1) << (capacity == 1 ? 0 : 1);
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.handler = handler;
+        this.worker = new Thread(this::drain, "batch-processor");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 提交一个任务，队列已满或者已经关闭时返回false
+     */
+    public boolean submit(T task) {
+        while (true) {
+            long position = tail.get();
+            if ((position & CLOSED) != 0) {
+                return false;
+            }
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer.lazySet(index, task);
+                    sequences.set(index, position + 1);
+                    if (sleeping) {
+                        sleeping = false;
+                        LockSupport.unpark(worker);
+                    }
+                    return true;
+                }
+            } else if (sequence < position) {
+                // 槽位上一轮的任务还没有被取走，队列已满
+                return false;
+            }
+        }
+    }
+
+    // 只有后台线程调用
+    private T poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        T task = buffer.get(index);
+        buffer.lazySet(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return task;
+    }
+
+    private void drain() {
+        List<T> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        while (true) {
+            T task = poll();
+            if (task != null) {
+                if (batch.isEmpty()) {
+                    deadline = System.nanoTime() + lingerNanos;
+                }
+                batch.add(task);
+                if (batch.size() >= batchSize || System.nanoTime() - deadline >= 0) {
+                    flush(batch);
+                }
+                continue;
+            }
+            long position = tail.get();
+            boolean closed = (position & CLOSED) != 0;
+            if (closed && head == (position & ~CLOSED)) {
+                // 关闭之前提交成功的任务都已经取出
+                break;
+            }
+            long waitNanos = deadline - System.nanoTime();
+            if (!batch.isEmpty() && (closed || waitNanos <= 0)) {
+                flush(batch);
+                continue;
+            }
+            // 先设置标记再检查一次队列，和submit中先发布任务再检查标记配合，不会错过唤醒
+            sleeping = true;
+            if (sequences.get((int) head & mask) != head + 1) {
+                if (batch.isEmpty()) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, waitNanos);
+                }
+            }
+            sleeping = false;
+        }
+        flush(batch);
+    }
+
+    private void flush(List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            handler.accept(batch);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        batch.clear();
+    }
+
+    /**
+     * 停止接收新的任务，处理完队列中剩余的任务后返回
+     * 与close同时进行的submit要么返回false，要么返回true并且任务在close返回前被处理
+     */
+    @Override
+    public void close() {
+        long position;
+        do {
+            position = tail.get();
+        } while ((position & CLOSED) == 0 && !tail.compareAndSet(position, position | CLOSED));
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @describe: 代理模式 - 舱壁隔离
+ * 限制每个方法同时在执行的调用数量，超过限制的调用在截止时间内排队等待，或者直接拒绝
+ * 并发上限根据调用耗时自动调整：耗时正常时每次调用成功加一点，耗时超过目标值时按比例减少（AIMD）
+ * 同一个采样窗口内的多次慢调用只减少一次，窗口从上一次减少开始，之后开始的调用超时才会再次减少
+ * 排队的调用在有界队列中休眠，释放名额时直接把名额交给队头的调用并唤醒它，不需要轮询
+ * 服务过载时调用很快被拒绝，而不是在队列里越积越多，调用耗时的长尾始终有上限
+ * @author: linjuanjuan
+ * @date: 2026-10-17 20:55
+ */
+public class BulkheadProxyPattern {
+    public static void main(String[] args) throws InterruptedException {
+        DynamicSubject target = () -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        // 最多同时2个调用，排队最多等待10毫秒
+        BulkheadInvocationHandler bulkhead = new BulkheadInvocationHandler(new DynamicProxy(target, () -> {}),
+                2, 1, 8, 100, 10);
+        DynamicSubject proxy = (DynamicSubject) Proxy.newProxyInstance(DynamicSubject.class.getClassLoader(),
+                new Class<?>[]{DynamicSubject.class}, bulkhead);
+
+        int threads = 6;
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    proxy.buyMac();
+                } catch (RejectedExecutionException e) {
+                    rejected.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await();
+        System.out.println("调用 " + threads + " 次，拒绝 " + rejected.get() + " 次");
+    }
+}
+
+/**
+ * 舱壁隔离的动态代理，包装另一个InvocationHandler，每个方法一个独立的并发限制
+ */
+class BulkheadInvocationHandler implements InvocationHandler {
+
+    private final InvocationHandler delegate;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final long maxWaitNanos;
+    private final Map<Method, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * @param targetLatencyMillis 调用耗时超过该值时减小并发上限
+     * @param maxWaitMillis 超过并发上限时最多排队等待的时间，为0时直接拒绝，排队的调用最多maxLimit个
+     */
+    public BulkheadInvocationHandler(InvocationHandler delegate, int initialLimit, int minLimit, int maxLimit,
+                                     long targetLatencyMillis, long maxWaitMillis) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("需要满足 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        this.delegate = delegate;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        AdaptiveLimiter limiter = limiter(method);
+        if (!limiter.acquire(maxWaitNanos)) {
+            throw new RejectedExecutionException("超过并发上限 == > " + method.getName() + "，上限 " + limiter.getLimit());
+        }
+        long start = System.nanoTime();
+        try {
+            return delegate.invoke(proxy, method, args);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    public AdaptiveLimiter limiter(Method method) {
+        AdaptiveLimiter limiter = limiters.get(method);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(method,
+                    m -> new AdaptiveLimiter(initialLimit, minLimit, maxLimit, targetLatencyNanos));
+        }
+        return limiter;
+    }
+}
+
+/**
+ * 自适应的并发限制，获取和释放都只有CAS操作，不加锁
+ * 超过上限时在有界的等待队列中休眠，释放名额时按先后顺序把名额交给等待的调用
+ */
+class AdaptiveLimiter {
+
+    // 减小并发上限时乘以的比例
+    private static final double DECREASE = 0.9;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // 并发上限用double保存，这样每次成功可以只加1/limit，相当于每一轮上限加1
+    private final AtomicLong limitBits;
+    // 上一次减小并发上限的时间，在它之前开始的慢调用不再触发减小
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(System.nanoTime());
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos) {
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 获取一个执行名额，最多等待maxWaitNanos，等待的调用已经有maxLimit个时直接拒绝
+     */
+    public boolean acquire(long maxWaitNanos) {
+        // 有调用在排队时不插队
+        if (waiters.isEmpty() && tryAcquire()) {
+            return true;
+        }
+        if (maxWaitNanos <= 0) {
+            return false;
+        }
+        if (waiting.incrementAndGet() > maxLimit) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            Waiter waiter = new Waiter(Thread.currentThread());
+            waiters.offer(waiter);
+            // 入队之前释放的名额没有交给任何人，这里再分配一次
+            dispatch();
+            long deadline = System.nanoTime() + maxWaitNanos;
+            while (waiter.state.get() == Waiter.WAITING) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            if (waiter.state.compareAndSet(Waiter.WAITING, Waiter.CANCELLED)) {
+                waiters.remove(waiter);
+                return false;
+            }
+            // 放弃之前名额已经交过来了
+            return true;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * 释放名额，并根据本次调用的耗时调整并发上限，然后把空出来的名额交给等待的调用
+     */
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > targetLatencyNanos) {
+            decrease(latencyNanos);
+        } else {
+            increase();
+        }
+        dispatch();
+    }
+
+    private void increase() {
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next = Math.min(maxLimit, limit + 1 / limit);
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    // 只有在上一次减小之后开始的慢调用才会触发减小，同一个窗口内最多减小一次
+    private void decrease(long latencyNanos) {
+        long now = System.nanoTime();
+        long last = lastDecreaseNanos.get();
+        if (now - latencyNanos - last < 0 || !lastDecreaseNanos.compareAndSet(last, now)) {
+            return;
+        }
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next = Math.max(minLimit, limit * DECREASE);
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    // 有空闲名额并且有调用在等待时，先占住名额再交给队头的调用
+    private void dispatch() {
+        while (!waiters.isEmpty()) {
+            if (!tryAcquire()) {
+                // 名额已满，之后释放名额的调用会继续分配
+                return;
+            }
+            Waiter waiter = waiters.poll();
+            if (waiter != null && waiter.state.compareAndSet(Waiter.WAITING, Waiter.GRANTED)) {
+                LockSupport.unpark(waiter.thread);
+                continue;
+            }
+            // 没有等待的调用或者它已经放弃，把名额还回去
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static final class Waiter {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Thread thread;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
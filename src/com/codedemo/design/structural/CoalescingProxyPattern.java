@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @describe: 代理模式 - 请求合并
+ * 大量线程同时调用同一个方法时，代理只把其中一次调用转发给真实对象，其余调用共享这一次的结果
+ * 方法和参数都相同才会合并，结果还可以缓存一小段时间，防止慢服务被瞬间涌入的请求压垮
+ * CoalescingStaticProxy为静态代理的写法，CoalescingInvocationHandler可以代理任意接口
+ * @author: linjuanjuan
+ * @date: 2026-10-17 20:20
+ */
+public class CoalescingProxyPattern {
+    public static void main(String[] args) throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        StaticSubject slowSubject = () -> {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        StaticSubject proxy = new CoalescingStaticProxy(slowSubject, new SingleFlight<>());
+
+        int threads = 8;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                proxy.buyMac();
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        System.out.println("调用代理 " + threads + " 次，真实对象被调用 " + calls.get() + " 次");
+
+        DynamicSubject target = new DynamicRealSubject();
+        DynamicSubject dynamicProxy = (DynamicSubject) Proxy.newProxyInstance(target.getClass().getClassLoader(),
+                target.getClass().getInterfaces(), new CoalescingInvocationHandler(target, 1000, 1024));
+        dynamicProxy.buyMac();
+        // 缓存时间内的调用直接返回缓存的结果
+        dynamicProxy.buyMac();
+    }
+}
+
+/**
+ * 请求合并的静态代理
+ */
+class CoalescingStaticProxy implements StaticSubject {
+    private StaticSubject target;
+    private SingleFlight<String, Object> singleFlight;
+
+    public CoalescingStaticProxy(StaticSubject target, SingleFlight<String, Object> singleFlight) {
+        this.target = target;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public void buyMac() {
+        try {
+            singleFlight.call("buyMac", () -> {
+                target.buyMac();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
+
+/**
+ * 请求合并的动态代理，方法和参数列表一起作为合并的key
+ * 参数需要正确实现equals和hashCode
+ */
+class CoalescingInvocationHandler implements InvocationHandler {
+
+    private Object target;
+    private SingleFlight<List<Object>, Object> singleFlight;
+
+    public CoalescingInvocationHandler(Object target, long ttlMillis, int maxSize) {
+        this.target = target;
+        this.singleFlight = new SingleFlight<>(ttlMillis, maxSize);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Object[] params = args == null ? new Object[0] : args;
+        Object[] key = new Object[params.length + 1];
+        key[0] = method;
+        System.arraycopy(params, 0, key, 1, params.length);
+        try {
+            return singleFlight.call(Collections.unmodifiableList(Arrays.asList(key)),
+                    () -> method.invoke(target, params));
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
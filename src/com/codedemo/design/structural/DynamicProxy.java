@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @describe: 代理对象
+ * 需要实现InvocationHandler
+ * @author: linjuanjuan
+ * @date: 2020-02-16 22:47
+ */
+class DynamicProxy implements InvocationHandler {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private Object target;
+    private Runnable after;
+    // 每个代理对象自己的调用器缓存，调用器本身由HiddenProxyFactory按Method共享
+    private final Map<Method, HiddenInvoker> invokers = new ConcurrentHashMap<>();
+
+    public DynamicProxy(Object target) {
+        this(target, () -> System.out.println("打包Mac，寄出"));
+    }
+
+    /**
+     * @param after 调用目标对象之后，代理做的额外操作
+     */
+    public DynamicProxy(Object target, Runnable after) {
+        this.target = target;
+        this.after = after;
+    }
+
+    public Object getProxyInstance() {
+        // 返回一个指定接口的代理类实例，该接口可以将方法调用指派到指定的调用处理程序
+        return Proxy.newProxyInstance(target.getClass().getClassLoader(), target.getClass().getInterfaces(), this);
+    }
+
+    /**
+     * 生成隐藏类代理，调用时不经过InvocationHandler和反射，代理的额外操作相同
+     * @param lookup 需要有完整的访问权限，通常传入调用方的MethodHandles.lookup()
+     */
+    public <T> T getHiddenProxyInstance(MethodHandles.Lookup lookup, Class<T> iface) {
+        return HiddenProxyFactory.newProxy(lookup, iface, target, new HiddenInterceptor() {
+            @Override
+            public void after(int method) {
+                after.run();
+            }
+        });
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        // 在代理实例上处理方法调用并返回结果
+        HiddenInvoker invoker = invokers.get(method);
+        if (invoker == null) {
+            invoker = invokers.computeIfAbsent(method, DynamicProxy::invoker);
+        }
+        Object result = invoker.invoke(target, args);
+        // 代理做的额外操作
+        after.run();
+        return result;
+    }
+
+    // 优先使用生成的调用器，方法不可访问时退回反射调用
+    private static HiddenInvoker invoker(Method method) {
+        try {
+            return HiddenProxyFactory.invoker(LOOKUP, method);
+        } catch (IllegalArgumentException e) {
+            return (target, args) -> {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException ex) {
+                    // 抛出目标方法自己的异常，和直接调用时一致
+                    throw ex.getCause();
+                }
+            };
+        }
+    }
+}
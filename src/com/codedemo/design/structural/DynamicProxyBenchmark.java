@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @describe: 动态代理 - 调用方式性能对比
+ * 对比直接调用、缓存生成调用器的代理（DynamicProxy）、缓存MethodHandle的代理、隐藏类代理四种方式的耗时
+ * 代理的额外操作为空操作，只统计调用本身的开销
+ * 绑定目标对象并展开Object[]参数的MethodHandle不是常量，JIT无法内联，实测比反射调用更慢，因此DynamicProxy为每个Method生成隐藏类调用器
+ * @author: linjuanjuan
+ * @date: 2026-10-17 17:40
+ */
+public class DynamicProxyBenchmark {
+
+    private static final int WARMUP = 5_000_000;
+    private static final int ITERATIONS = 20_000_000;
+
+    // 防止JIT把没有使用结果的调用优化掉
+    private static int sink;
+
+    public static void main(String[] args) {
+        Calculator target = new SimpleCalculator();
+        DynamicProxy dynamicProxy = new DynamicProxy(target, () -> {});
+        Calculator generated = (Calculator) dynamicProxy.getProxyInstance();
+        Calculator cached = (Calculator) Proxy.newProxyInstance(Calculator.class.getClassLoader(),
+                new Class<?>[]{Calculator.class}, new MethodHandleProxy(target));
+        Calculator hidden = dynamicProxy.getHiddenProxyInstance(MethodHandles.lookup(), Calculator.class);
+
+        for (int round = 0; round < 3; round++) {
+            bench("直接调用", target);
+            bench("生成调用器", generated);
+            bench("MethodHandle", cached);
+            bench("隐藏类", hidden);
+        }
+        System.out.println("sink == > " + sink);
+    }
+
+    private static void bench(String name, Calculator calculator) {
+        for (int i = 0; i < WARMUP; i++) {
+            sink += calculator.add(i, 1);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += calculator.add(i, 1);
+        }
+        System.out.printf("%-14s %.2f ns/op%n", name, (double) (System.nanoTime() - start) / ITERATIONS);
+    }
+}
+
+/**
+ * 测试用的抽象对象
+ */
+interface Calculator {
+    int add(int a, int b);
+}
+
+/**
+ * 测试用的真实对象
+ */
+class SimpleCalculator implements Calculator {
+    @Override
+    public int add(int a, int b) {
+        return a + b;
+    }
+}
+
+/**
+ * 缓存每个Method对应的MethodHandle的代理，MethodHandle绑定了目标对象，参数统一展开为Object[]
+ */
+class MethodHandleProxy implements InvocationHandler {
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final Object target;
+    private final Map<Method, MethodHandle> invokers = new ConcurrentHashMap<>();
+
+    public MethodHandleProxy(Object target) {
+        this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        MethodHandle invoker = invokers.get(method);
+        if (invoker == null) {
+            invoker = invokers.computeIfAbsent(method, this::invoker);
+        }
+        return invoker.invokeExact(args == null ? NO_ARGS : args);
+    }
+
+    private MethodHandle invoker(Method method) {
+        try {
+            return MethodHandles.lookup().unreflect(method)
+                    .bindTo(target)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(INVOKER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问方法 == > " + method, e);
+        }
+    }
+}
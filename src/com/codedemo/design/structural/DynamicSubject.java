@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+/**
+ * @describe: 抽象对象
+ * 必须实现接口，否则jdk无法进行动态代理
+ * @author: linjuanjuan
+ * @date: 2020-02-16 22:47
+ */
+interface DynamicSubject {
+    void buyMac();
+}
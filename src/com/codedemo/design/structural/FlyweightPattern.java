@@ -3,8 +3,29 @@
  */
 package com.codedemo.design.structural;
 
-import java.util.HashMap;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
 
 /**
  * @describe: 享元模式 - 蝇量模式
@@ -13,6 +34,13 @@ import java.util.Map;
  * ConcreteFlyweight 具体享元类 抽象享元类的实现，实现了已定的具体接口
  * UnsharedConcreteFlyweight 非共享具体享元类
  * FlyweightFactory 享元工厂类 创建具体的享元类，维护相同的享元对象，保证对象被共享
+ * 享元池按名字的hash分成多段，段数随CPU核数增加，每段一个ConcurrentHashMap，同一个名字只会创建一次
+ * 命中时只读取ConcurrentHashMap，不加锁，访问记录先写入每段的读缓冲区，缓冲区满时才加锁批量更新访问顺序，锁被占用时直接丢弃
+ * 只有未命中创建享元时才加所在段的锁，更新访问顺序并淘汰，不同段之间互不影响
+ * 享元池有大小上限，超过上限时淘汰最久没有使用的享元（按读缓冲区近似），也可以选择弱引用模式，没有被使用的享元可以被GC回收
+ * 书名数量非常多时，可以使用intern返回int句柄代替享元对象，书名以UTF-8编码连续保存，用到时才解码
+ * 享元池统计命中、未命中、池大小、估算占用的内存和节省的内存，以及intern表的命中、未命中和占用的内存，通过getStats获取快照
+ * 调用registerJfrEvents后还会每秒生成一次JFR事件，统计时不加锁，不会阻塞getOrder和intern
  * @author: linjuanjuan
  * @date: 2020-02-16 21:51
  */
@@ -29,6 +57,14 @@ public class FlyweightPattern {
         System.out.println(flyweightB);
         flyweightB.sell();
         System.out.println(flyweightC);
+
+        int handleA = factoryA.intern("三国演义");
+        int handleB = factoryB.intern("三国演义");
+        System.out.println("句柄 == > " + handleA + "，" + handleB);
+        factoryA.sell(handleA);
+        factoryA.registerJfrEvents("default");
+        System.out.println(factoryA.getStats());
+        factoryA.unregisterJfrEvents();
     }
 }
 
@@ -68,23 +104,661 @@ class ConcreteFlyweight implements Flyweight {
  * 享元工厂
  */
 class FlyweightFactory {
-    private Map<String, Flyweight> pools = new HashMap<>();
-    private static FlyweightFactory instance = new FlyweightFactory();
-    private FlyweightFactory(){}
+
+    // 段数为不小于CPU核数两倍的2的幂，最少16段，享元池上限小于段数时按上限减少段数
+    private static final int STRIPES =
+            Integer.highestOneBit(Math.max(16, Runtime.getRuntime().availableProcessors() * 2) - 1) << 1;
+    // 每段读缓冲区的大小
+    private static final int READ_BUFFER = 32;
+    private static final int DEFAULT_MAX_SIZE = 1 << 16;
+    // 不共享时每次都要创建一个ConcreteFlyweight，书名由调用方传入，不计算在内
+    private static final long FLYWEIGHT_BYTES = 16;
+
+    private static FlyweightFactory instance = new FlyweightFactory(DEFAULT_MAX_SIZE, false, false);
+
+    private final Segment[] segments;
+    private final FlyweightInternTable internTable;
+    // 统计计数，LongAdder内部按线程分段累加，不会增加getOrder的竞争
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder retainedBytes = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+    // 注册到JFR的周期事件，没有注册时为null
+    private Runnable jfrHook;
+
+    private FlyweightFactory(int maxSize, boolean weakValues, boolean offHeap) {
+        this.internTable = new FlyweightInternTable(offHeap);
+        // 段数取不超过maxSize的2的幂，容量平均分配，余数分给前面的段，所有段的容量之和正好为maxSize
+        int stripes = Math.min(STRIPES, Integer.highestOneBit(maxSize));
+        this.segments = new Segment[stripes];
+        for (int i = 0; i < stripes; i++) {
+            int capacity = maxSize / stripes + (i < maxSize % stripes ? 1 : 0);
+            segments[i] = new Segment(this, capacity, weakValues);
+        }
+    }
 
     public static FlyweightFactory getInstance() {
         return instance;
     }
 
+    /**
+     * 创建一个独立的享元工厂
+     * @param maxSize 享元池的大小上限
+     * @param weakValues 为true时享元池弱引用享元对象，外部不再使用的享元可以被GC回收
+     */
+    public static FlyweightFactory create(int maxSize, boolean weakValues) {
+        return create(maxSize, weakValues, false);
+    }
+
+    /**
+     * @param offHeap 为true时intern的书名保存在堆外内存中
+     */
+    public static FlyweightFactory create(int maxSize, boolean weakValues, boolean offHeap) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize必须大于0");
+        }
+        return new FlyweightFactory(maxSize, weakValues, offHeap);
+    }
+
     public Flyweight getOrder(String name) {
-        Flyweight flyweight;
-        if (pools.containsKey(name)) {
-            flyweight = pools.get(name);
-        } else {
-            flyweight = new ConcreteFlyweight(name);
-            pools.put(name, flyweight);
+        return segmentFor(name).get(name);
+    }
+
+    /**
+     * 返回书名对应的int句柄，相同的书名返回相同的句柄，句柄一直有效，不会被淘汰
+     */
+    public int intern(String name) {
+        return internTable.intern(name);
+    }
+
+    public String getName(int handle) {
+        return internTable.name(handle);
+    }
+
+    public void sell(int handle) {
+        System.out.println("卖了一本书 == > " + internTable.name(handle));
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public FlyweightStats getStats() {
+        return new FlyweightStats(hits.sum(), misses.sum(), size(), retainedBytes.sum(), savedBytes.sum(),
+                internTable.size(), internTable.getHits(), internTable.getMisses(),
+                internTable.arenaBytes(), internTable.indexBytes());
+    }
+
+    /**
+     * 每秒生成一次享元池统计的JFR事件，开启JFR录制后可以看到，重复注册时只保留第一次
+     * 注册后享元工厂会一直被JFR引用，不再使用时需要调用unregisterJfrEvents
+     */
+    public synchronized void registerJfrEvents(String name) {
+        if (jfrHook != null) {
+            return;
+        }
+        jfrHook = () -> {
+            FlyweightStatsEvent event = new FlyweightStatsEvent();
+            if (event.isEnabled()) {
+                FlyweightStats stats = getStats();
+                event.factory = name;
+                event.hits = stats.getHits();
+                event.misses = stats.getMisses();
+                event.size = stats.getSize();
+                event.retainedBytes = stats.getRetainedBytes();
+                event.savedBytes = stats.getSavedBytes();
+                event.internSize = stats.getInternSize();
+                event.internHits = stats.getInternHits();
+                event.internMisses = stats.getInternMisses();
+                event.internArenaBytes = stats.getInternArenaBytes();
+                event.internIndexBytes = stats.getInternIndexBytes();
+                event.commit();
+            }
+        };
+        FlightRecorder.addPeriodicEvent(FlyweightStatsEvent.class, jfrHook);
+    }
+
+    public synchronized void unregisterJfrEvents() {
+        if (jfrHook != null) {
+            FlightRecorder.removePeriodicEvent(jfrHook);
+            jfrHook = null;
+        }
+    }
+
+    /**
+     * 估算池中一个享元占用的内存：
+     * ConcurrentHashMap的Node约32字节，记录访问顺序的LinkedHashMap的Entry约40字节，ConcreteFlyweight约16字节，
+     * 书名String约24字节，书名的字节数组约16字节加内容，内容按每个字符2字节估算，弱引用模式下还有约32字节的WeakReference
+     */
+    private static long retainedEstimate(String name, boolean weakValues) {
+        return 128 + ((long) name.length() << 1) + (weakValues ? 32 : 0);
+    }
+
+    private Segment segmentFor(String name) {
+        int h = name.hashCode();
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * 享元池的一段
+     * pools保存享元，读取不加锁；order按访问顺序保存书名和放入pools的值，只在持有lock时访问，超过容量时淘汰最久没有使用的享元
+ * 淘汰和清理时按书名和值一起删除，不会误删已经被替换的新享元
+     * 命中时的访问记录写入reads，由持有lock的线程批量回放到order中
+     */
+    private static final class Segment {
+
+        private final FlyweightFactory factory;
+        private final int capacity;
+        private final boolean weakValues;
+        private final ReferenceQueue<Flyweight> queue = new ReferenceQueue<>();
+        private final Map<String, Object> pools = new ConcurrentHashMap<>();
+        private final LinkedHashMap<String, Object> order = new LinkedHashMap<>(16, 0.75f, true);
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicReferenceArray<String> reads = new AtomicReferenceArray<>(READ_BUFFER);
+        private final AtomicInteger readCount = new AtomicInteger();
+
+        private Segment(FlyweightFactory factory, int capacity, boolean weakValues) {
+            this.factory = factory;
+            this.capacity = capacity;
+            this.weakValues = weakValues;
+        }
+
+        Flyweight get(String name) {
+            Flyweight flyweight = unwrap(pools.get(name));
+            if (flyweight != null) {
+                hit(name);
+                return flyweight;
+            }
+            // 未命中时在ConcurrentHashMap中创建，同一个名字只有一个线程会创建
+            Loader loader = new Loader();
+            pools.compute(name, loader);
+            if (!loader.created) {
+                hit(name);
+                return loader.flyweight;
+            }
+            factory.misses.increment();
+            lock.lock();
+            try {
+                drainReads();
+                expunge();
+                if (order.put(name, loader.value) == null) {
+                    factory.retainedBytes.add(retainedEstimate(name, weakValues));
+                }
+                evict();
+            } finally {
+                lock.unlock();
+            }
+            return loader.flyweight;
+        }
+
+        int size() {
+            return pools.size();
+        }
+
+        private void hit(String name) {
+            factory.hits.increment();
+            factory.savedBytes.add(FLYWEIGHT_BYTES);
+            int i = readCount.getAndIncrement();
+            if (i < READ_BUFFER) {
+                reads.lazySet(i, name);
+                if (i < READ_BUFFER - 1) {
+                    return;
+                }
+            }
+            // 缓冲区已满，拿不到锁时丢弃这次访问记录，持有锁的线程会回放缓冲区
+            if (lock.tryLock()) {
+                try {
+                    drainReads();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        // 持有lock时调用，按顺序回放访问记录，正在写入的记录可能被丢弃，只影响淘汰的精确度
+        private void drainReads() {
+            int count = Math.min(readCount.get(), READ_BUFFER);
+            for (int i = 0; i < count; i++) {
+                String name = reads.get(i);
+                if (name != null) {
+                    reads.lazySet(i, null);
+                    order.get(name);
+                }
+            }
+            readCount.set(0);
+        }
+
+        // 持有lock时调用
+        private void evict() {
+            Iterator<Map.Entry<String, Object>> entries = order.entrySet().iterator();
+            while (order.size() > capacity && entries.hasNext()) {
+                Map.Entry<String, Object> eldest = entries.next();
+                entries.remove();
+                pools.remove(eldest.getKey(), eldest.getValue());
+                factory.retainedBytes.add(-retainedEstimate(eldest.getKey(), weakValues));
+            }
+        }
+
+        // 持有lock时调用，清理已经被GC回收的享元
+        private void expunge() {
+            if (!weakValues) {
+                return;
+            }
+            WeakValue ref;
+            while ((ref = (WeakValue) queue.poll()) != null) {
+                if (pools.remove(ref.name, ref) && order.remove(ref.name, ref)) {
+                    factory.retainedBytes.add(-retainedEstimate(ref.name, true));
+                }
+            }
+        }
+
+        private static Flyweight unwrap(Object value) {
+            if (value instanceof WeakValue) {
+                return ((WeakValue) value).get();
+            }
+            return (Flyweight) value;
+        }
+
+        /**
+         * 在ConcurrentHashMap.compute中创建享元，记录是否由当前线程创建
+         * 弱引用的享元已经被回收但还没有清理时直接替换
+         */
+        private final class Loader implements BiFunction<String, Object, Object> {
+            private Flyweight flyweight;
+            // 当前线程放入pools的值
+            private Object value;
+            private boolean created;
+
+            @Override
+            public Object apply(String name, Object value) {
+                flyweight = unwrap(value);
+                if (flyweight != null) {
+                    return value;
+                }
+                created = true;
+                flyweight = new ConcreteFlyweight(name);
+                this.value = weakValues ? new WeakValue(name, flyweight, queue) : flyweight;
+                return this.value;
+            }
+        }
+    }
+
+    private static final class WeakValue extends WeakReference<Flyweight> {
+        private final String name;
+
+        private WeakValue(String name, Flyweight flyweight, ReferenceQueue<Flyweight> queue) {
+            super(flyweight, queue);
+            this.name = name;
+        }
+    }
+
+}
+
+/**
+ * 享元池统计快照，内存均为估算值，单位字节
+ */
+class FlyweightStats {
+    private final long hits;
+    private final long misses;
+    private final int size;
+    private final long retainedBytes;
+    private final long savedBytes;
+    private final int internSize;
+    private final long internHits;
+    private final long internMisses;
+    private final long internArenaBytes;
+    private final long internIndexBytes;
+
+    public FlyweightStats(long hits, long misses, int size, long retainedBytes, long savedBytes,
+                          int internSize, long internHits, long internMisses,
+                          long internArenaBytes, long internIndexBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.size = size;
+        this.retainedBytes = retainedBytes;
+        this.savedBytes = savedBytes;
+        this.internSize = internSize;
+        this.internHits = internHits;
+        this.internMisses = internMisses;
+        this.internArenaBytes = internArenaBytes;
+        this.internIndexBytes = internIndexBytes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * 享元池当前占用的内存
+     */
+    public long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    /**
+     * 与每次都创建新对象相比，共享享元节省的内存分配
+     */
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    /**
+     * intern表中书名的数量
+     */
+    public int getInternSize() {
+        return internSize;
+    }
+
+    public long getInternHits() {
+        return internHits;
+    }
+
+    public long getInternMisses() {
+        return internMisses;
+    }
+
+    /**
+     * intern表保存书名的内存，堆外模式下为堆外内存
+     */
+    public long getInternArenaBytes() {
+        return internArenaBytes;
+    }
+
+    /**
+     * intern表的hash索引、hash值和偏移量数组占用的内存
+     */
+    public long getInternIndexBytes() {
+        return internIndexBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "FlyweightStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", hitRate=" + String.format("%.2f", getHitRate()) +
+                ", size=" + size +
+                ", retainedBytes=" + retainedBytes +
+                ", savedBytes=" + savedBytes +
+                ", internSize=" + internSize +
+                ", internHits=" + internHits +
+                ", internMisses=" + internMisses +
+                ", internArenaBytes=" + internArenaBytes +
+                ", internIndexBytes=" + internIndexBytes +
+                '}';
+    }
+}
+
+/**
+ * 享元池统计的JFR事件
+ */
+@Name("com.codedemo.design.FlyweightStats")
+@Label("Flyweight Stats")
+@Category("Design Pattern")
+@Period("1 s")
+class FlyweightStatsEvent extends Event {
+    @Label("Factory")
+    String factory;
+    @Label("Hits")
+    long hits;
+    @Label("Misses")
+    long misses;
+    @Label("Pool Size")
+    int size;
+    @Label("Retained")
+    @DataAmount
+    long retainedBytes;
+    @Label("Saved")
+    @DataAmount
+    long savedBytes;
+    @Label("Intern Size")
+    int internSize;
+    @Label("Intern Hits")
+    long internHits;
+    @Label("Intern Misses")
+    long internMisses;
+    @Label("Intern Arena")
+    @DataAmount
+    long internArenaBytes;
+    @Label("Intern Index")
+    @DataAmount
+    long internIndexBytes;
+}
+
+/**
+ * 书名的intern表
+ * 所有书名以UTF-8编码连续保存在一块内存中，可以放在堆外，每个书名只额外占用一个偏移量和一个hash值
+ * 通过开放寻址的hash索引查找书名，句柄即为书名的序号，hash使用String自带缓存的hashCode
+ * 查找时不加锁，也不对书名重新编码，直接按字符与保存的UTF-8字节比较，只有插入新书名时才加锁
+ * 插入时先写书名、偏移量和hash（数组扩容时先整体替换），最后以release方式写入索引槽位，
+ * 读取时以acquire方式读取索引槽位，读到句柄后一定能看到它的数据；扩容后的索引整体替换，读到旧索引没找到时加锁再找一次
+ */
+class FlyweightInternTable {
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(int[].class);
+    // 偏移量为int，书名内存块最大不超过数组的最大长度
+    private static final int MAX_ARENA_BYTES = Integer.MAX_VALUE - 8;
+    // hash索引的长度是书名数量的两倍以上，书名数量再多索引长度会溢出
+    private static final int MAX_NAMES = 1 << 29;
+
+    private final boolean offHeap;
+    private final Object lock = new Object();
+
+    private volatile ByteBuffer arena;
+    // offsets[h]为第h个书名的起始位置，offsets[h + 1]为结束位置
+    private volatile int[] offsets = new int[17];
+    private volatile int[] hashes = new int[16];
+    // hash索引，保存句柄 + 1，0表示空槽位
+    private volatile int[] index = new int[32];
+    private volatile int count;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public FlyweightInternTable(boolean offHeap) {
+        this.offHeap = offHeap;
+        this.arena = allocate(1024);
+    }
+
+    public int intern(String name) {
+        int hash = name.hashCode();
+        int handle = find(name, hash);
+        if (handle >= 0) {
+            hits.increment();
+            return handle;
+        }
+        synchronized (lock) {
+            int[] table = index;
+            int mask = table.length - 1;
+            for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+                handle = table[slot] - 1;
+                if (handle < 0) {
+                    misses.increment();
+                    return add(name, hash, slot);
+                }
+                if (hashes[handle] == hash && matches(handle, name)) {
+                    hits.increment();
+                    return handle;
+                }
+            }
+        }
+    }
+
+    /**
+     * 解码书名，只在需要时才创建String
+     */
+    public String name(int handle) {
+        if (handle < 0 || handle >= count) {
+            throw new IllegalArgumentException("句柄不存在 == > " + handle);
+        }
+        int[] offs = offsets;
+        ByteBuffer buffer = arena;
+        byte[] bytes = new byte[offs[handle + 1] - offs[handle]];
+        buffer.get(offs[handle], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 保存书名的内存块的容量
+     */
+    public long arenaBytes() {
+        return arena.capacity();
+    }
+
+    /**
+     * hash索引、hash值和偏移量三个数组占用的内存，不含数组对象头
+     */
+    public long indexBytes() {
+        return ((long) index.length + hashes.length + offsets.length) * Integer.BYTES;
+    }
+
+    // 不加锁查找，没有找到时返回-1
+    private int find(String name, int hash) {
+        int[] table = index;
+        int mask = table.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int handle = (int) SLOT.getAcquire(table, slot) - 1;
+            if (handle < 0) {
+                return -1;
+            }
+            if (hashes[handle] == hash && matches(handle, name)) {
+                return handle;
+            }
         }
-        return flyweight;
     }
 
-}
\ No newline at end of file
+    // 持有lock时调用
+    private int add(String name, int hash, int slot) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int handle = count;
+        int start = offsets[handle];
+        ByteBuffer buffer = arena;
+        if (handle == MAX_NAMES) {
+            throw new IllegalStateException("intern表已满，书名最多 " + MAX_NAMES + " 个");
+        }
+        long required = (long) start + bytes.length;
+        if (required > MAX_ARENA_BYTES) {
+            throw new IllegalStateException("intern表已满，书名最多占用 " + MAX_ARENA_BYTES + " 字节");
+        }
+        if (required > buffer.capacity()) {
+            // 按long计算翻倍后的容量，避免超过1GB后溢出为负数
+            long doubled = Math.min((long) buffer.capacity() << 1, MAX_ARENA_BYTES);
+            ByteBuffer grown = allocate((int) Math.max(doubled, required));
+            grown.put(0, buffer, 0, start);
+            buffer = grown;
+        }
+        buffer.put(start, bytes);
+        arena = buffer;
+        if (handle == hashes.length) {
+            hashes = Arrays.copyOf(hashes, handle << 1);
+            offsets = Arrays.copyOf(offsets, (handle << 1) + 1);
+        }
+        offsets[handle + 1] = start + bytes.length;
+        hashes[handle] = hash;
+        // 发布新的书名，读取到这个槽位的线程可以看到上面写入的数据
+        SLOT.setRelease(index, slot, handle + 1);
+        count = handle + 1;
+        if ((handle + 1) * 2 > index.length) {
+            rehash();
+        }
+        return handle;
+    }
+
+    // 逐个字符按UTF-8编码与保存的字节比较，和String.getBytes一样把不成对的代理字符当作'?'
+    private boolean matches(int handle, String name) {
+        int[] offs = offsets;
+        ByteBuffer buffer = arena;
+        int pos = offs[handle];
+        int end = offs[handle + 1];
+        int length = name.length();
+        for (int i = 0; i < length; i++) {
+            int c = name.charAt(i);
+            if (c < 0x80) {
+                if (pos == end || buffer.get(pos++) != c) {
+                    return false;
+                }
+                continue;
+            }
+            int size;
+            if (c < 0x800) {
+                size = 2;
+            } else if (!Character.isSurrogate((char) c)) {
+                size = 3;
+            } else if (Character.isHighSurrogate((char) c) && i + 1 < length
+                    && Character.isLowSurrogate(name.charAt(i + 1))) {
+                c = Character.toCodePoint((char) c, name.charAt(++i));
+                size = 4;
+            } else {
+                if (pos == end || buffer.get(pos++) != '?') {
+                    return false;
+                }
+                continue;
+            }
+            if (end - pos < size) {
+                return false;
+            }
+            int shift = (size - 1) * 6;
+            int lead = size == 2 ? 0xC0 : size == 3 ? 0xE0 : 0xF0;
+            if ((buffer.get(pos++) & 0xFF) != (lead | c >>> shift)) {
+                return false;
+            }
+            for (shift -= 6; shift >= 0; shift -= 6) {
+                if ((buffer.get(pos++) & 0xFF) != (0x80 | (c >>> shift) & 0x3F)) {
+                    return false;
+                }
+            }
+        }
+        return pos == end;
+    }
+
+    // 持有lock时调用，新的索引写完后整体替换
+    private void rehash() {
+        int[] table = new int[index.length << 1];
+        int mask = table.length - 1;
+        for (int handle = 0; handle < count; handle++) {
+            int slot = mix(hashes[handle]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = handle + 1;
+        }
+        index = table;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+/**
+ * @describe: 隐藏类代理的拦截器
+ * 由HiddenProxyFactory生成的代理类直接调用，不经过反射，也没有Method对象
+ * 方法用int编号表示，编号与HiddenProxyFactory.methods返回的方法下标一一对应
+ * 目标方法抛出异常时不会调用after
+ * @author: linjuanjuan
+ * @date: 2026-10-17 18:20
+ */
+public interface HiddenInterceptor {
+
+    /**
+     * 调用目标方法之前
+     */
+    default void before(int method) {}
+
+    /**
+     * 目标方法正常返回之后
+     */
+    default void after(int method) {}
+
+}
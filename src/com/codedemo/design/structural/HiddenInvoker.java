@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+/**
+ * @describe: 隐藏类方法调用器
+ * 由HiddenProxyFactory.invoker为单个Method生成，调用时直接对目标对象执行invokeinterface或invokevirtual，
+ * 参数从Object[]中取出并拆箱，返回值装箱后返回，没有反射调用，也不会把目标方法的异常包装成InvocationTargetException
+ * 生成的调用器与目标对象无关，同一个Method的调用器可以被所有代理共享
+ * @author: linjuanjuan
+ * @date: 2026-10-17 18:20
+ */
+public interface HiddenInvoker {
+
+    /**
+     * @param target 实现了方法所在类型的目标对象
+     * @param args   方法参数，基本类型为对应的包装类型，没有参数时可以为null
+     * @return 方法的返回值，基本类型装箱，void方法返回null
+     */
+    Object invoke(Object target, Object[] args) throws Throwable;
+
+}
@@ -0,0 +1,628 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @describe: 隐藏类代理
+ * 和cglib生成FastClass的思路一样，直接生成代理类的字节码，代理方法中直接调用目标对象和拦截器，不需要反射
+ * 生成的类通过Lookup.defineHiddenClass定义为隐藏类，和lookup所在的类同包，可以代理包内可见的接口
+ * 生成的代理类按lookup所在的类和接口列表缓存，同一组接口只生成一次
+ * 代理类只实现接口中的方法，equals、hashCode、toString使用Object的默认实现
+ * 使用方式：DynamicSubject proxy = HiddenProxyFactory.newProxy(MethodHandles.lookup(), DynamicSubject.class, target, interceptor);
+ * 也可以通过invoker为单个Method生成HiddenInvoker，供InvocationHandler代替Method.invoke，生成的调用器按lookup所在的类和Method缓存
+ * @author: linjuanjuan
+ * @date: 2026-10-17 18:20
+ */
+public final class HiddenProxyFactory {
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String INTERCEPTOR = HiddenInterceptor.class.getName().replace('.', '/');
+    private static final String INTERCEPTOR_DESC = "L" + INTERCEPTOR + ";";
+    private static final MethodType CONSTRUCTOR_TYPE =
+            MethodType.methodType(void.class, Object.class, HiddenInterceptor.class);
+    private static final String INVOKER = HiddenInvoker.class.getName().replace('.', '/');
+
+    // lookup所在的类 -> 接口列表 -> 生成的代理类
+    private static final ClassValue<Map<List<Class<?>>, ProxyClass>> cache =
+            new ClassValue<Map<List<Class<?>>, ProxyClass>>() {
+                @Override
+                protected Map<List<Class<?>>, ProxyClass> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    // lookup所在的类 -> 方法 -> 生成的调用器
+    private static final ClassValue<Map<Method, HiddenInvoker>> invokers =
+            new ClassValue<Map<Method, HiddenInvoker>>() {
+                @Override
+                protected Map<Method, HiddenInvoker> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private HiddenProxyFactory() {}
+
+    /**
+     * 为单个方法生成调用器
+     * @param lookup 需要有完整的访问权限，通常传入调用方的MethodHandles.lookup()
+     * @throws IllegalArgumentException 方法或者方法所在的类型在lookup中不可访问，这时只能使用反射调用
+     */
+    public static HiddenInvoker invoker(MethodHandles.Lookup lookup, Method method) {
+        Map<Method, HiddenInvoker> methods = invokers.get(lookup.lookupClass());
+        HiddenInvoker invoker = methods.get(method);
+        if (invoker == null) {
+            invoker = methods.computeIfAbsent(method, m -> defineInvoker(lookup, m));
+        }
+        return invoker;
+    }
+
+    private static HiddenInvoker defineInvoker(MethodHandles.Lookup lookup, Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())) {
+            throw new IllegalArgumentException("只能调用public的实例方法 == > " + method);
+        }
+        try {
+            lookup.accessClass(owner);
+            for (Class<?> type : method.getParameterTypes()) {
+                lookup.accessClass(type);
+            }
+            lookup.accessClass(method.getReturnType());
+            // 生成的类由lookup所在的类加载器解析，方法中用到的类型必须对它可见
+            ClassLoader loader = lookup.lookupClass().getClassLoader();
+            if (!visible(loader, owner)) {
+                throw new IllegalArgumentException("方法所在的类型对lookup不可见 == > " + method);
+            }
+            String packageName = lookup.lookupClass().getPackageName();
+            String className = (packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/")
+                    + "HiddenMethodInvoker";
+            byte[] bytes = new InvokerWriter(className, method).toByteArray();
+            MethodHandles.Lookup hidden = lookup.defineHiddenClass(bytes, true);
+            return (HiddenInvoker) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("无法访问方法 == > " + method, e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("无法定义调用器 == > " + method, e);
+        }
+    }
+
+    private static boolean visible(ClassLoader loader, Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    public static <T> T newProxy(MethodHandles.Lookup lookup, Class<T> iface, Object target,
+                                 HiddenInterceptor interceptor) {
+        return iface.cast(newProxy(lookup, new Class<?>[]{iface}, target, interceptor));
+    }
+
+    /**
+     * 创建代理对象
+     * @param lookup 需要有完整的访问权限，通常传入调用方的MethodHandles.lookup()
+     */
+    public static Object newProxy(MethodHandles.Lookup lookup, Class<?>[] interfaces, Object target,
+                                  HiddenInterceptor interceptor) {
+        for (Class<?> iface : interfaces) {
+            if (!iface.isInstance(target)) {
+                throw new IllegalArgumentException("目标对象没有实现接口 == > " + iface.getName());
+            }
+        }
+        try {
+            return proxyClass(lookup, interfaces).constructor.invoke(target, interceptor);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("无法创建代理对象", e);
+        }
+    }
+
+    /**
+     * 代理类中的方法，下标即为拦截器收到的方法编号
+     */
+    public static List<Method> methods(MethodHandles.Lookup lookup, Class<?>... interfaces) {
+        return proxyClass(lookup, interfaces).methods;
+    }
+
+    private static ProxyClass proxyClass(MethodHandles.Lookup lookup, Class<?>[] interfaces) {
+        List<Class<?>> key = Collections.unmodifiableList(Arrays.asList(interfaces.clone()));
+        Map<List<Class<?>>, ProxyClass> classes = cache.get(lookup.lookupClass());
+        ProxyClass proxyClass = classes.get(key);
+        if (proxyClass == null) {
+            proxyClass = classes.computeIfAbsent(key, k -> define(lookup, k));
+        }
+        return proxyClass;
+    }
+
+    private static ProxyClass define(MethodHandles.Lookup lookup, List<Class<?>> interfaces) {
+        for (Class<?> iface : interfaces) {
+            if (!iface.isInterface()) {
+                throw new IllegalArgumentException("只能代理接口 == > " + iface.getName());
+            }
+        }
+        List<Method> methods = collectMethods(interfaces);
+        String packageName = lookup.lookupClass().getPackageName();
+        String className = (packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/") + "HiddenProxy";
+        try {
+            byte[] bytes = new ClassWriter(className, interfaces, methods).toByteArray();
+            MethodHandles.Lookup hidden = lookup.defineHiddenClass(bytes, true);
+            MethodHandle constructor = hidden.findConstructor(hidden.lookupClass(), CONSTRUCTOR_TYPE)
+                    .asType(MethodType.methodType(Object.class, Object.class, HiddenInterceptor.class));
+            return new ProxyClass(Collections.unmodifiableList(methods), constructor);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("无法定义代理类 == > " + interfaces, e);
+        }
+    }
+
+    // 收集所有接口中的抽象方法和默认方法，签名相同的方法只保留一个
+    private static List<Method> collectMethods(List<Class<?>> interfaces) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Class<?> iface : interfaces) {
+            for (Method method : iface.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                methods.putIfAbsent(method.getName() + MethodType.methodType(method.getReturnType(),
+                        method.getParameterTypes()).toMethodDescriptorString(), method);
+            }
+        }
+        return new ArrayList<>(methods.values());
+    }
+
+    private static final class ProxyClass {
+        private final List<Method> methods;
+        private final MethodHandle constructor;
+
+        private ProxyClass(List<Method> methods, MethodHandle constructor) {
+            this.methods = methods;
+            this.constructor = constructor;
+        }
+    }
+
+    /**
+     * 代理类的字节码生成，生成的代理类结构如下：
+     * final class HiddenProxy implements 接口... {
+     *     private final Object target;
+     *     private final HiddenInterceptor interceptor;
+     *     public 返回值 方法(参数...) {
+     *         interceptor.before(编号);
+     *         返回值 result = ((接口) target).方法(参数...);
+     *         interceptor.after(编号);
+     *         return result;
+     *     }
+     * }
+     * 方法中没有分支，不需要StackMapTable
+     */
+    private static final class ClassWriter {
+
+        private static final int VERSION = 52;
+        private static final int ACC_PUBLIC = 0x0001;
+        private static final int ACC_PRIVATE = 0x0002;
+        private static final int ACC_FINAL = 0x0010;
+        private static final int ACC_SUPER = 0x0020;
+
+        private static final int ALOAD_0 = 0x2a;
+        private static final int ALOAD_1 = 0x2b;
+        private static final int ALOAD_2 = 0x2c;
+        private static final int SIPUSH = 0x11;
+        private static final int RETURN = 0xb1;
+        private static final int GETFIELD = 0xb4;
+        private static final int PUTFIELD = 0xb5;
+        private static final int INVOKESPECIAL = 0xb7;
+        private static final int INVOKEINTERFACE = 0xb9;
+        private static final int CHECKCAST = 0xc0;
+
+        private final String className;
+        private final List<Class<?>> interfaces;
+        private final List<Method> methods;
+        private final ConstantPool pool = new ConstantPool();
+
+        private ClassWriter(String className, List<Class<?>> interfaces, List<Method> methods) {
+            this.className = className;
+            this.interfaces = interfaces;
+            this.methods = methods;
+        }
+
+        private byte[] toByteArray() {
+            try {
+                // 先生成类的主体，常量池在生成过程中填充，最后写在最前面
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(body);
+                out.writeShort(ACC_FINAL | ACC_SUPER);
+                out.writeShort(pool.classRef(className));
+                out.writeShort(pool.classRef(OBJECT));
+                out.writeShort(interfaces.size());
+                for (Class<?> iface : interfaces) {
+                    out.writeShort(pool.classRef(internalName(iface)));
+                }
+
+                out.writeShort(2);
+                writeField(out, "target", "L" + OBJECT + ";");
+                writeField(out, "interceptor", INTERCEPTOR_DESC);
+
+                out.writeShort(methods.size() + 1);
+                writeConstructor(out);
+                for (int i = 0; i < methods.size(); i++) {
+                    writeMethod(out, methods.get(i), i);
+                }
+                out.writeShort(0);
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream header = new DataOutputStream(bytes);
+                header.writeInt(0xCAFEBABE);
+                header.writeShort(0);
+                header.writeShort(VERSION);
+                pool.writeTo(header);
+                body.writeTo(header);
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void writeField(DataOutputStream out, String name, String desc) throws IOException {
+            out.writeShort(ACC_PRIVATE | ACC_FINAL);
+            out.writeShort(pool.utf8(name));
+            out.writeShort(pool.utf8(desc));
+            out.writeShort(0);
+        }
+
+        private void writeConstructor(DataOutputStream out) throws IOException {
+            ByteArrayOutputStream code = new ByteArrayOutputStream();
+            code.write(ALOAD_0);
+            writeRef(code, INVOKESPECIAL, pool.methodRef(OBJECT, "<init>", "()V", false));
+            code.write(ALOAD_0);
+            code.write(ALOAD_1);
+            writeRef(code, PUTFIELD, pool.fieldRef(className, "target", "L" + OBJECT + ";"));
+            code.write(ALOAD_0);
+            code.write(ALOAD_2);
+            writeRef(code, PUTFIELD, pool.fieldRef(className, "interceptor", INTERCEPTOR_DESC));
+            code.write(RETURN);
+            writeCode(out, ACC_PUBLIC, "<init>", "(L" + OBJECT + ";" + INTERCEPTOR_DESC + ")V", code, 2, 3);
+        }
+
+        private void writeMethod(DataOutputStream out, Method method, int index) throws IOException {
+            String desc = MethodType.methodType(method.getReturnType(), method.getParameterTypes())
+                    .toMethodDescriptorString();
+            Class<?> returnType = method.getReturnType();
+            int argSlots = 0;
+            for (Class<?> type : method.getParameterTypes()) {
+                argSlots += slots(type);
+            }
+            int resultSlot = 1 + argSlots;
+            int resultSlots = returnType == void.class ? 0 : slots(returnType);
+            if (resultSlot + resultSlots > 255) {
+                throw new IllegalArgumentException("方法参数过多 == > " + method);
+            }
+
+            ByteArrayOutputStream code = new ByteArrayOutputStream();
+            writeInterceptor(code, "before", index);
+
+            code.write(ALOAD_0);
+            writeRef(code, GETFIELD, pool.fieldRef(className, "target", "L" + OBJECT + ";"));
+            String owner = internalName(method.getDeclaringClass());
+            writeRef(code, CHECKCAST, pool.classRef(owner));
+            int slot = 1;
+            for (Class<?> type : method.getParameterTypes()) {
+                code.write(opcode(type, 0x15));
+                code.write(slot);
+                slot += slots(type);
+            }
+            writeRef(code, INVOKEINTERFACE, pool.methodRef(owner, method.getName(), desc, true));
+            code.write(1 + argSlots);
+            code.write(0);
+            if (returnType != void.class) {
+                code.write(opcode(returnType, 0x36));
+                code.write(resultSlot);
+            }
+
+            writeInterceptor(code, "after", index);
+
+            if (returnType == void.class) {
+                code.write(RETURN);
+            } else {
+                code.write(opcode(returnType, 0x15));
+                code.write(resultSlot);
+                code.write(opcode(returnType, 0xac));
+            }
+            int maxStack = Math.max(2, Math.max(1 + argSlots, resultSlots));
+            writeCode(out, ACC_PUBLIC, method.getName(), desc, code, maxStack, resultSlot + resultSlots);
+        }
+
+        // interceptor.before(index) 或 interceptor.after(index)
+        private void writeInterceptor(ByteArrayOutputStream code, String name, int index) {
+            code.write(ALOAD_0);
+            writeRef(code, GETFIELD, pool.fieldRef(className, "interceptor", INTERCEPTOR_DESC));
+            code.write(SIPUSH);
+            code.write(index >> 8);
+            code.write(index);
+            writeRef(code, INVOKEINTERFACE, pool.methodRef(INTERCEPTOR, name, "(I)V", true));
+            code.write(2);
+            code.write(0);
+        }
+
+        private void writeCode(DataOutputStream out, int access, String name, String desc,
+                               ByteArrayOutputStream code, int maxStack, int maxLocals) throws IOException {
+            writeCode(pool, out, access, name, desc, code, maxStack, maxLocals);
+        }
+
+        private static void writeCode(ConstantPool pool, DataOutputStream out, int access, String name, String desc,
+                                      ByteArrayOutputStream code, int maxStack, int maxLocals) throws IOException {
+            out.writeShort(access);
+            out.writeShort(pool.utf8(name));
+            out.writeShort(pool.utf8(desc));
+            out.writeShort(1);
+            out.writeShort(pool.utf8("Code"));
+            out.writeInt(12 + code.size());
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.size());
+            code.writeTo(out);
+            out.writeShort(0);
+            out.writeShort(0);
+        }
+
+        private static void writeRef(ByteArrayOutputStream code, int opcode, int index) {
+            code.write(opcode);
+            code.write(index >> 8);
+            code.write(index);
+        }
+
+        /**
+         * 根据类型计算load、store、return指令，base分别为iload、istore、ireturn
+         * 顺序为int、long、float、double、引用
+         */
+        private static int opcode(Class<?> type, int base) {
+            if (type == long.class) {
+                return base + 1;
+            } else if (type == float.class) {
+                return base + 2;
+            } else if (type == double.class) {
+                return base + 3;
+            } else if (type.isPrimitive()) {
+                return base;
+            }
+            return base + 4;
+        }
+
+        private static int slots(Class<?> type) {
+            return type == long.class || type == double.class ? 2 : 1;
+        }
+
+        private static String internalName(Class<?> type) {
+            return type.getName().replace('.', '/');
+        }
+    }
+
+    /**
+     * 调用器的字节码生成，生成的调用器结构如下：
+     * final class HiddenMethodInvoker implements HiddenInvoker {
+     *     public Object invoke(Object target, Object[] args) {
+     *         return 装箱(((方法所在类型) target).方法((参数类型) 拆箱(args[0]), ...));
+     *     }
+     * }
+     * 和代理类一样没有分支，不需要StackMapTable
+     */
+    private static final class InvokerWriter {
+
+        private static final int ACONST_NULL = 0x01;
+        private static final int ALOAD_0 = 0x2a;
+        private static final int ALOAD_1 = 0x2b;
+        private static final int ALOAD_2 = 0x2c;
+        private static final int AALOAD = 0x32;
+        private static final int SIPUSH = 0x11;
+        private static final int ARETURN = 0xb0;
+        private static final int RETURN = 0xb1;
+        private static final int INVOKEVIRTUAL = 0xb6;
+        private static final int INVOKESPECIAL = 0xb7;
+        private static final int INVOKESTATIC = 0xb8;
+        private static final int INVOKEINTERFACE = 0xb9;
+        private static final int CHECKCAST = 0xc0;
+
+        private final String className;
+        private final Method method;
+        private final ConstantPool pool = new ConstantPool();
+
+        private InvokerWriter(String className, Method method) {
+            this.className = className;
+            this.method = method;
+        }
+
+        private byte[] toByteArray() {
+            try {
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(body);
+                out.writeShort(ClassWriter.ACC_FINAL | ClassWriter.ACC_SUPER);
+                out.writeShort(pool.classRef(className));
+                out.writeShort(pool.classRef(OBJECT));
+                out.writeShort(1);
+                out.writeShort(pool.classRef(INVOKER));
+                out.writeShort(0);
+                out.writeShort(2);
+                writeConstructor(out);
+                writeInvoke(out);
+                out.writeShort(0);
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream header = new DataOutputStream(bytes);
+                header.writeInt(0xCAFEBABE);
+                header.writeShort(0);
+                header.writeShort(ClassWriter.VERSION);
+                pool.writeTo(header);
+                body.writeTo(header);
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void writeConstructor(DataOutputStream out) throws IOException {
+            ByteArrayOutputStream code = new ByteArrayOutputStream();
+            code.write(ALOAD_0);
+            ClassWriter.writeRef(code, INVOKESPECIAL, pool.methodRef(OBJECT, "<init>", "()V", false));
+            code.write(RETURN);
+            ClassWriter.writeCode(pool, out, ClassWriter.ACC_PUBLIC, "<init>", "()V", code, 1, 1);
+        }
+
+        private void writeInvoke(DataOutputStream out) throws IOException {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            Class<?> returnType = method.getReturnType();
+            Class<?> declaringClass = method.getDeclaringClass();
+            String owner = ClassWriter.internalName(declaringClass);
+            String desc = MethodType.methodType(returnType, parameterTypes).toMethodDescriptorString();
+            int argSlots = 0;
+            for (Class<?> type : parameterTypes) {
+                argSlots += ClassWriter.slots(type);
+            }
+
+            ByteArrayOutputStream code = new ByteArrayOutputStream();
+            code.write(ALOAD_1);
+            ClassWriter.writeRef(code, CHECKCAST, pool.classRef(owner));
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Class<?> type = parameterTypes[i];
+                code.write(ALOAD_2);
+                code.write(SIPUSH);
+                code.write(i >> 8);
+                code.write(i);
+                code.write(AALOAD);
+                if (type.isPrimitive()) {
+                    Class<?> wrapper = MethodType.methodType(type).wrap().returnType();
+                    String wrapperName = ClassWriter.internalName(wrapper);
+                    ClassWriter.writeRef(code, CHECKCAST, pool.classRef(wrapperName));
+                    ClassWriter.writeRef(code, INVOKEVIRTUAL, pool.methodRef(wrapperName, type.getName() + "Value",
+                            MethodType.methodType(type).toMethodDescriptorString(), false));
+                } else {
+                    ClassWriter.writeRef(code, CHECKCAST, pool.classRef(ClassWriter.internalName(type)));
+                }
+            }
+            if (declaringClass.isInterface()) {
+                ClassWriter.writeRef(code, INVOKEINTERFACE, pool.methodRef(owner, method.getName(), desc, true));
+                code.write(1 + argSlots);
+                code.write(0);
+            } else {
+                ClassWriter.writeRef(code, INVOKEVIRTUAL, pool.methodRef(owner, method.getName(), desc, false));
+            }
+            if (returnType == void.class) {
+                code.write(ACONST_NULL);
+            } else if (returnType.isPrimitive()) {
+                Class<?> wrapper = MethodType.methodType(returnType).wrap().returnType();
+                String wrapperName = ClassWriter.internalName(wrapper);
+                ClassWriter.writeRef(code, INVOKESTATIC, pool.methodRef(wrapperName, "valueOf",
+                        MethodType.methodType(wrapper, returnType).toMethodDescriptorString(), false));
+            }
+            code.write(ARETURN);
+            // 目标对象 + 已经取出的参数 + 参数数组和下标
+            int maxStack = Math.max(2, 1 + argSlots + 2);
+            ClassWriter.writeCode(pool, out, ClassWriter.ACC_PUBLIC, "invoke",
+                    "(L" + OBJECT + ";[L" + OBJECT + ";)L" + OBJECT + ";", code, maxStack, 3);
+        }
+    }
+
+    /**
+     * 常量池，相同的常量只保存一份
+     */
+    private static final class ConstantPool {
+
+        private static final int UTF8 = 1;
+        private static final int CLASS = 7;
+        private static final int FIELD_REF = 9;
+        private static final int METHOD_REF = 10;
+        private static final int INTERFACE_METHOD_REF = 11;
+        private static final int NAME_AND_TYPE = 12;
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int count = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, () -> {
+                out.writeByte(UTF8);
+                out.writeUTF(value);
+            });
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return entry("C" + internalName, () -> {
+                out.writeByte(CLASS);
+                out.writeShort(name);
+            });
+        }
+
+        int fieldRef(String owner, String name, String desc) {
+            return memberRef(FIELD_REF, owner, name, desc);
+        }
+
+        int methodRef(String owner, String name, String desc, boolean isInterface) {
+            return memberRef(isInterface ? INTERFACE_METHOD_REF : METHOD_REF, owner, name, desc);
+        }
+
+        private int memberRef(int tag, String owner, String name, String desc) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descIndex = utf8(desc);
+            int nameAndType = entry("N" + name + ":" + desc, () -> {
+                out.writeByte(NAME_AND_TYPE);
+                out.writeShort(nameIndex);
+                out.writeShort(descIndex);
+            });
+            return entry("M" + tag + owner + "." + name + ":" + desc, () -> {
+                out.writeByte(tag);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int entry(String key, Writer writer) {
+            Integer index = indexes.get(key);
+            if (index == null) {
+                try {
+                    writer.write();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                index = count++;
+                indexes.put(key, index);
+            }
+            return index;
+        }
+
+        void writeTo(DataOutputStream header) throws IOException {
+            header.writeShort(count);
+            bytes.writeTo(header);
+        }
+
+        private interface Writer {
+            void write() throws IOException;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @describe: 无锁的耗时直方图
+ * 参考HdrHistogram的做法，按2的幂分桶，每个桶再细分为16个子桶，误差约为6%
+ * 记录时只是一次数组下标计算和一次原子自增，不加锁
+ * 计数按线程分段保存，不同线程写不同的分段，减少多个线程同时修改同一个缓存行
+ * 分段数不超过cpu核数，每个分段约8KB，第一次有线程写入时才分配，只被少数线程调用的方法只占用少数分段
+ * 读取时把所有分段的计数合并，计算p50、p99、p999以及吞吐量
+ * 吞吐量按调用方传入的上一次快照计算，直方图本身不保存读取状态，多个调用方各自读取互不影响
+ * @author: linjuanjuan
+ * @date: 2026-10-17 19:10
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_COUNT;
+    // 不小于cpu核数的2的幂，最多16个
+    private static final int STRIPES =
+            Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    private final long createdNanos = System.nanoTime();
+
+    /**
+     * 记录一次耗时，单位纳秒
+     */
+    public void record(long nanos) {
+        int index = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicLongArray stripe = stripes.getAcquire(index);
+        if (stripe == null) {
+            stripe = allocate(index);
+        }
+        stripe.getAndIncrement(index(Math.max(0, nanos)));
+    }
+
+    // 多个线程同时分配同一个分段时只有一个成功，其余的使用成功的那个
+    private AtomicLongArray allocate(int index) {
+        AtomicLongArray created = new AtomicLongArray(BUCKETS);
+        AtomicLongArray existing = stripes.compareAndExchange(index, null, created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * 小于16的值直接作为下标，其余的值按最高位所在的位置分桶，再取最高位之后的4位作为子桶
+     */
+    static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /**
+     * 桶中能表示的最大值
+     */
+    static long highestValue(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        long sub = index & (SUB_COUNT - 1);
+        long lowest = (1L << exponent) | (sub << (exponent - SUB_BITS));
+        return lowest + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * 生成快照，吞吐量按直方图创建以来的平均值计算
+     */
+    public Snapshot snapshot() {
+        return snapshot(null);
+    }
+
+    /**
+     * 生成快照，吞吐量按距离previous的时间计算
+     * @param previous 调用方自己保存的上一次快照，为null时从直方图创建时开始计算
+     */
+    public Snapshot snapshot(Snapshot previous) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray stripe = stripes.getAcquire(s);
+            if (stripe == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = stripe.get(i);
+                counts[i] += count;
+                total += count;
+            }
+        }
+        long now = System.nanoTime();
+        long lastCount = previous == null ? 0 : previous.count;
+        long lastNanos = previous == null ? createdNanos : previous.nanos;
+        double throughput = now == lastNanos ? 0 : (double) (total - lastCount) / (now - lastNanos) * 1_000_000_000L;
+        return new Snapshot(total, percentile(counts, total, 0.5), percentile(counts, total, 0.99),
+                percentile(counts, total, 0.999), throughput, now);
+    }
+
+    private static long percentile(long[] counts, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(counts.length - 1);
+    }
+
+    /**
+     * 直方图快照，耗时单位为纳秒，吞吐量单位为次/秒
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final long p50;
+        private final long p99;
+        private final long p999;
+        private final double throughput;
+        // 生成快照的时间，用于计算下一次快照的吞吐量
+        private final long nanos;
+
+        private Snapshot(long count, long p50, long p99, long p999, double throughput, long nanos) {
+            this.count = count;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.throughput = throughput;
+            this.nanos = nanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getP999() {
+            return p999;
+        }
+
+        public double getThroughput() {
+            return throughput;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "count=" + count +
+                    ", p50=" + p50 +
+                    ", p99=" + p99 +
+                    ", p999=" + p999 +
+                    ", throughput=" + String.format("%.0f", throughput) +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @describe: 代理模式 - 耗时统计
+ * 在代理外面再包一层代理，统计每个方法每次调用的耗时，动态代理和静态代理都可以使用
+ * 每个方法一个LatencyHistogram，按完整的方法签名区分，重载的方法分开统计
+ * 记录时不加锁，需要时通过LatencyMetrics.snapshot()获取p50、p99、p999和吞吐量，传入上一次的快照可以得到这段时间内的吞吐量
+ * @author: linjuanjuan
+ * @date: 2026-10-17 19:10
+ */
+public class LatencyProxyPattern {
+    public static void main(String[] args) {
+        LatencyMetrics metrics = new LatencyMetrics();
+
+        DynamicSubject target = new DynamicRealSubject();
+        DynamicSubject dynamicProxy = (DynamicSubject) Proxy.newProxyInstance(target.getClass().getClassLoader(),
+                target.getClass().getInterfaces(), new LatencyInvocationHandler(new DynamicProxy(target), metrics));
+        dynamicProxy.buyMac();
+
+        StaticSubject staticProxy = new StaticLatencyProxy(new StaticProxy(new StaticRealSubject()), metrics);
+        staticProxy.buyMac();
+
+        Map<String, LatencyHistogram.Snapshot> first = metrics.snapshot();
+        System.out.println(first);
+        dynamicProxy.buyMac();
+        System.out.println(metrics.snapshot(first));
+    }
+}
+
+/**
+ * 耗时统计，按名字保存每个方法的直方图，名字为方法的完整签名，例如com.example.Subject.buy(java.lang.String,int)
+ */
+class LatencyMetrics {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    public Map<String, LatencyHistogram.Snapshot> snapshot() {
+        return snapshot(Collections.emptyMap());
+    }
+
+    /**
+     * @param previous 调用方保存的上一次快照，吞吐量按距离上一次快照的时间计算
+     */
+    public Map<String, LatencyHistogram.Snapshot> snapshot(Map<String, LatencyHistogram.Snapshot> previous) {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        histograms.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot(previous.get(name))));
+        return snapshots;
+    }
+
+    /**
+     * 方法的完整签名，包含声明方法的类的全名和参数类型
+     */
+    public static String name(Method method) {
+        StringBuilder name = new StringBuilder(method.getDeclaringClass().getName())
+                .append('.').append(method.getName()).append('(');
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                name.append(',');
+            }
+            name.append(types[i].getTypeName());
+        }
+        return name.append(')').toString();
+    }
+}
+
+/**
+ * 动态代理的耗时统计，包装另一个InvocationHandler
+ * 每个Method对应的直方图只查找一次，之后直接从缓存中取
+ */
+class LatencyInvocationHandler implements InvocationHandler {
+
+    private final InvocationHandler delegate;
+    private final LatencyMetrics metrics;
+    private final Map<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public LatencyInvocationHandler(InvocationHandler delegate, LatencyMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        LatencyHistogram histogram = histograms.get(method);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(method, m -> metrics.histogram(LatencyMetrics.name(m)));
+        }
+        long start = System.nanoTime();
+        try {
+            return delegate.invoke(proxy, method, args);
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+}
+
+/**
+ * 静态代理的耗时统计，直方图在创建代理时就已经确定
+ */
+class StaticLatencyProxy implements StaticSubject {
+
+    private final StaticSubject target;
+    private final LatencyHistogram buyMac;
+
+    public StaticLatencyProxy(StaticSubject target, LatencyMetrics metrics) {
+        this.target = target;
+        this.buyMac = metrics.histogram(StaticSubject.class.getName() + ".buyMac()");
+    }
+
+    @Override
+    public void buyMac() {
+        long start = System.nanoTime();
+        try {
+            target.buyMac();
+        } finally {
+            buyMac.record(System.nanoTime() - start);
+        }
+    }
+}
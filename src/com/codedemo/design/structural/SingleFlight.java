@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @describe: 请求合并
+ * 同一个key同时有多个请求时，只有第一个请求真正执行，其余请求等待并共享它的结果
+ * 执行结果可以再缓存一小段时间，缓存的数量有上限，超过上限一定余量后才统一清理一次：先清理过期的结果，仍然超过时随意淘汰一部分
+ * 每次清理都把数量降回上限，下一次清理至少要再放入余量个结果，清理的开销分摊到每次放入上是常数
+ * 执行失败时所有等待的请求都会收到同样的异常，失败的结果不缓存
+ * @author: linjuanjuan
+ * @date: 2026-10-17 20:20
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Map<K, Cached<V>> cache = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+    // 超过maxSize这么多之后才清理，缓存最多短暂达到maxSize + slack
+    private final int slack;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public SingleFlight() {
+        this(0, 0);
+    }
+
+    /**
+     * @param ttlMillis 结果缓存的时间，为0时不缓存，只合并同时进行的请求
+     * @param maxSize 最多缓存的结果数量，清理之前允许超出maxSize / 8（至少16）个
+     */
+    public SingleFlight(long ttlMillis, int maxSize) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxSize = maxSize;
+        this.slack = Math.max(16, maxSize >>> 3);
+    }
+
+    public V call(K key, Callable<V> loader) throws Exception {
+        Cached<V> cached = cached(key);
+        if (cached != null) {
+            return cached.value;
+        }
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // 上一个请求可能在我们检查缓存之后、放入进行中的请求之前刚好执行完，放入缓存后才移除自己
+            // 这里再检查一次缓存，命中时直接使用，不会重复执行
+            cached = cached(key);
+            if (cached != null) {
+                future.complete(cached.value);
+                return cached.value;
+            }
+            V value = loader.call();
+            if (ttlNanos > 0) {
+                put(key, value);
+            }
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    // 没有缓存或者已经过期时返回null
+    private Cached<V> cached(K key) {
+        if (ttlNanos <= 0) {
+            return null;
+        }
+        Cached<V> cached = cache.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt - System.nanoTime() > 0) {
+            return cached;
+        }
+        cache.remove(key, cached);
+        return null;
+    }
+
+    private void put(K key, V value) {
+        long now = System.nanoTime();
+        cache.put(key, new Cached<>(value, now + ttlNanos));
+        if (cache.size() - slack <= maxSize) {
+            return;
+        }
+        // 只让一个线程清理，其余线程继续放入，不会同时遍历整个缓存
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            cache.values().removeIf(cached -> cached.expiresAt - now <= 0);
+            Iterator<K> keys = cache.keySet().iterator();
+            while (cache.size() > maxSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Cached<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Cached(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+/**
+ * @describe: 代理对象
+ * @author: linjuanjuan
+ * @date: 2020-02-16 22:25
+ */
+class StaticProxy implements StaticSubject {
+    private StaticSubject target;
+
+    public StaticProxy(StaticSubject target) {
+        this.target = target;
+    }
+
+    @Override
+    public void buyMac() {
+        target.buyMac();
+        // 代理做的额外操作
+        System.out.println("打包Mac，寄出");
+    }
+}
@@ -19,41 +19,3 @@ public class StaticProxyPattern {
         proxy.buyMac();
     }
 }
-
-/**
- * 抽象对象
- */
-interface StaticSubject {
-    void buyMac();
-}
-
-/**
- * 真实对象
- */
-class StaticRealSubject implements StaticSubject {
-    @Override
-    public void buyMac() {
-        System.out.println("买Mac");
-    }
-}
-
-/**
- * 代理对象
- */
-class StaticProxy implements StaticSubject {
-    private StaticSubject target;
-
-    public StaticProxy(StaticSubject target) {
-        this.target = target;
-    }
-
-    @Override
-    public void buyMac() {
-        target.buyMac();
-        // 代理做的额外操作
-        System.out.println("打包Mac，寄出");
-    }
-}
-
-
-
@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+/**
+ * @describe: 真实对象
+ * @author: linjuanjuan
+ * @date: 2020-02-16 22:25
+ */
+class StaticRealSubject implements StaticSubject {
+    @Override
+    public void buyMac() {
+        System.out.println("买Mac");
+    }
+}
@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2020 LINJUANJUAN TECHNOLOGY Inc. All rights reserved.
+ */
+package com.codedemo.design.structural;
+
+/**
+ * @describe: 抽象对象
+ * @author: linjuanjuan
+ * @date: 2020-02-16 22:25
+ */
+interface StaticSubject {
+    void buyMac();
+}